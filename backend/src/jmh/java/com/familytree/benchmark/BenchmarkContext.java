@@ -0,0 +1,37 @@
+package com.familytree.benchmark;
+
+import com.familytree.FamilyTreeApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts the application against a private in-memory H2 database, so the services run with their
+ * real transactions, repositories and caches. The web layer is kept (the security configuration
+ * needs it) but listens on a random port and is never called.
+ */
+final class BenchmarkContext {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        // Command-line arguments outrank application.properties
+        return new SpringApplicationBuilder(FamilyTreeApplication.class)
+                .run("--spring.main.banner-mode=off",
+                        "--server.port=0",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark" + DATABASES.incrementAndGet()
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+    }
+}
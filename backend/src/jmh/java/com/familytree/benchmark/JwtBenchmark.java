@@ -0,0 +1,80 @@
+package com.familytree.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.familytree.service.UserDetailsImpl;
+import com.familytree.util.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token work done on every login and, for parsing, on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+    private String tamperedToken;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        jwtUtils = new JwtUtils();
+        set(jwtUtils, "jwtSecret", "FamilyTreeSecretKeyForJwtTokenGenerationShouldBeLongEnoughToSecure");
+        set(jwtUtils, "jwtExpirationMs", 86_400_000);
+        jwtUtils.init();
+        // Rejections are logged at error level, which would dominate the measurement
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(JwtUtils.class)).setLevel(Level.OFF);
+
+        UserDetailsImpl user = new UserDetailsImpl(1L, "benchmark", "benchmark@example.com", "", true,
+                List.of(new SimpleGrantedAuthority("USER"), new SimpleGrantedAuthority("ADMIN")));
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+        int signature = token.lastIndexOf('.') + 1;
+        tamperedToken = token.substring(0, signature) + (token.charAt(signature) == 'A' ? 'B' : 'A')
+                + token.substring(signature + 1);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public Claims parseValid() {
+        return jwtUtils.parseJwtClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseTampered() {
+        return jwtUtils.parseJwtClaims(tamperedToken);
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
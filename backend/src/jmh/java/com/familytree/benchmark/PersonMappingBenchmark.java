@@ -0,0 +1,108 @@
+package com.familytree.benchmark;
+
+import com.familytree.dto.PersonDTO;
+import com.familytree.entity.Gender;
+import com.familytree.entity.Person;
+import com.familytree.service.PersonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DTO-to-entity step of every person create and update. With parents set it includes the two
+ * parent lookups; each invocation maps a batch of distinct persons in one fresh transaction, as a
+ * batch save does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PersonMappingBenchmark {
+
+    private static final int FAMILY_SIZE = 1000;
+    private static final int BATCH = 100;
+
+    @Param({"false", "true"})
+    private boolean withParents;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private MethodHandle mapDtoToEntity;
+    private final PersonDTO[] dtos = new PersonDTO[FAMILY_SIZE];
+    private int next;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        context = BenchmarkContext.start();
+        SyntheticFamily.populate(context.getBean(JdbcTemplate.class), FAMILY_SIZE);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+
+        // Private, and the bean is a transactional proxy, so it is invoked on the target directly
+        Object service = AopProxyUtils.getSingletonTarget(context.getBean(PersonService.class));
+        Method method = PersonService.class.getDeclaredMethod("mapDtoToEntity", PersonDTO.class, Person.class);
+        method.setAccessible(true);
+        mapDtoToEntity = MethodHandles.lookup().unreflect(method).bindTo(service);
+
+        for (int i = 0; i < FAMILY_SIZE; i++) {
+            PersonDTO dto = new PersonDTO();
+            dto.setFullName("Person " + i);
+            dto.setGender(i % 2 == 0 ? Gender.MALE : Gender.FEMALE);
+            dto.setDateOfBirth(LocalDate.of(1950 + i % 50, 1 + i % 12, 1 + i % 28));
+            dto.setIsAlive(true);
+            dto.setEmail("person" + i + "@example.com");
+            if (withParents) {
+                // Any two distinct existing ids will do; the mapping does not check the genders
+                dto.setFatherId(1L + i);
+                dto.setMotherId(1L + (i + 1) % FAMILY_SIZE);
+            }
+            dtos[i] = dto;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void mapDtoToEntity(Blackhole blackhole) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < BATCH; i++) {
+                Person person = new Person();
+                try {
+                    mapDtoToEntity.invoke(dtos[next], person);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+                next = (next + 1) % FAMILY_SIZE;
+                blackhole.consume(person);
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.familytree.benchmark;
+
+import com.familytree.dto.PersonView;
+import com.familytree.dto.TreeNodeDTO;
+import com.familytree.dto.TreeSpouseDTO;
+import com.familytree.entity.Gender;
+import com.familytree.entity.Person;
+import com.familytree.entity.RelationshipType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON rendering of a descendant tree {@code depth} generations deep, where every person has a
+ * spouse and three children, both as the nested tree and as the flat person list of the same people.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    private static final int CHILDREN = 3;
+
+    @Param({"2", "4", "6", "8"})
+    private int depth;
+
+    private ObjectMapper objectMapper;
+    private TreeNodeDTO tree;
+    private List<PersonView> persons;
+    private long nextId;
+
+    @Setup
+    public void setup() {
+        // Configured like the application's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        persons = new ArrayList<>();
+        nextId = 0;
+        tree = build(null, null, 0, 1900);
+    }
+
+    @Benchmark
+    public byte[] tree() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tree);
+    }
+
+    @Benchmark
+    public byte[] personList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(persons);
+    }
+
+    private TreeNodeDTO build(Person father, Person mother, int generation, int birthYear) {
+        Person person = person(Gender.MALE, father, mother, birthYear);
+        TreeNodeDTO node = node(person);
+        if (generation == depth) {
+            return node;
+        }
+        Person wife = person(Gender.FEMALE, null, null, birthYear + 2);
+        TreeSpouseDTO spouse = new TreeSpouseDTO();
+        spouse.setRelationshipId(nextId);
+        spouse.setRelationshipType(RelationshipType.MARRIED);
+        spouse.setStartDate(LocalDate.of(birthYear + 25, 6, 1));
+        spouse.setPerson(node(wife));
+        node.getSpouses().add(spouse);
+        for (int i = 0; i < CHILDREN; i++) {
+            node.getChildren().add(build(person, wife, generation + 1, birthYear + 27 + i * 2));
+        }
+        return node;
+    }
+
+    private Person person(Gender gender, Person father, Person mother, int birthYear) {
+        Person person = new Person();
+        person.setId(++nextId);
+        person.setFullName("Person " + nextId);
+        person.setGender(gender);
+        person.setDateOfBirth(LocalDate.of(birthYear, 3, 14));
+        person.setIsAlive(birthYear > 1930);
+        person.setImageUrl("/uploads/ab/cd/" + Long.toHexString(nextId * 0x9E3779B97F4A7C15L) + ".jpg");
+        person.setEmail("person" + nextId + "@example.com");
+        person.setFather(father);
+        person.setMother(mother);
+        person.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        person.setUpdatedAt(person.getCreatedAt());
+        person.setVersion(0L);
+        persons.add(PersonView.from(person));
+        return person;
+    }
+
+    private static TreeNodeDTO node(Person person) {
+        TreeNodeDTO node = new TreeNodeDTO();
+        node.setId(person.getId());
+        node.setFullName(person.getFullName());
+        node.setGender(person.getGender());
+        node.setDateOfBirth(person.getDateOfBirth());
+        node.setIsAlive(person.getIsAlive());
+        node.setImageUrl(person.getImageUrl());
+        node.setFatherId(person.getFatherId());
+        node.setMotherId(person.getMotherId());
+        return node;
+    }
+}
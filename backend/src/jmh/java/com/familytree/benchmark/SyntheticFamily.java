@@ -0,0 +1,98 @@
+package com.familytree.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a deterministic family of a given size: couples have one to four children, and most
+ * children marry someone from outside the family, founding the next couples. Ids run from 1 to
+ * the requested count, so any id in that range can be used as a tree root.
+ */
+final class SyntheticFamily {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final double MARRIAGE_RATE = 0.8;
+
+    private static final String INSERT_PERSON = "INSERT INTO person (id, full_name, gender, date_of_birth, "
+            + "is_alive, father_id, mother_id, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_RELATIONSHIP = "INSERT INTO relationships (id, person1_id, person2_id, "
+            + "relationship_type, start_date, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+    private final Timestamp now = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+    private final List<Object[]> persons = new ArrayList<>();
+    private final List<Object[]> relationships = new ArrayList<>();
+    private long personCount;
+    private long relationshipCount;
+
+    private record Couple(long husband, long wife, int birthYear) {
+    }
+
+    private SyntheticFamily(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    static void populate(JdbcTemplate jdbcTemplate, int size) {
+        new SyntheticFamily(jdbcTemplate).generate(size);
+    }
+
+    private void generate(int size) {
+        ArrayDeque<Couple> couples = new ArrayDeque<>();
+        while (personCount < size) {
+            if (couples.isEmpty()) {
+                couples.add(marry(person("MALE", null, null, 1700), "FEMALE", 1700));
+            }
+            Couple couple = couples.poll();
+            int children = 1 + random.nextInt(4);
+            for (int i = 0; i < children && personCount < size; i++) {
+                int birthYear = couple.birthYear() + 20 + random.nextInt(15);
+                String gender = random.nextBoolean() ? "MALE" : "FEMALE";
+                long child = person(gender, couple.husband(), couple.wife(), birthYear);
+                if (personCount < size && random.nextDouble() < MARRIAGE_RATE) {
+                    couples.add(marry(child, gender.equals("MALE") ? "FEMALE" : "MALE", birthYear));
+                }
+            }
+        }
+        flush();
+    }
+
+    private Couple marry(long person, String spouseGender, int birthYear) {
+        long spouse = person(spouseGender, null, null, birthYear);
+        long id = ++relationshipCount;
+        relationships.add(new Object[]{id, person, spouse, "MARRIED",
+                Date.valueOf(LocalDate.of(birthYear + 22, 6, 1)), now, now});
+        return spouseGender.equals("FEMALE")
+                ? new Couple(person, spouse, birthYear)
+                : new Couple(spouse, person, birthYear);
+    }
+
+    private long person(String gender, Long fatherId, Long motherId, int birthYear) {
+        long id = ++personCount;
+        persons.add(new Object[]{id, "Person " + id, gender,
+                Date.valueOf(LocalDate.of(birthYear, 1 + random.nextInt(12), 1 + random.nextInt(28))),
+                birthYear > 1930, fatherId, motherId, now, now});
+        if (persons.size() >= BATCH_SIZE) {
+            flush();
+        }
+        return id;
+    }
+
+    private void flush() {
+        // Persons first: the pending relationships may point at persons from this batch
+        jdbcTemplate.batchUpdate(INSERT_PERSON, persons);
+        jdbcTemplate.batchUpdate(INSERT_RELATIONSHIP, relationships);
+        persons.clear();
+        relationships.clear();
+    }
+}
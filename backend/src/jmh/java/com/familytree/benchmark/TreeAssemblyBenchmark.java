@@ -0,0 +1,96 @@
+package com.familytree.benchmark;
+
+import com.familytree.dto.TreeLayoutDTO;
+import com.familytree.dto.TreeNodeDTO;
+import com.familytree.service.GenealogyGraphService;
+import com.familytree.service.TreeLayoutService;
+import com.familytree.service.TreeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tree endpoints over synthetic families of increasing size: subtree assembly (graph walk plus the
+ * row fetches), an uncached layout of the same subtree, and the full graph reload done at startup.
+ * Roots are drawn at random so the samples cover leaves, founders and everything in between.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TreeAssemblyBenchmark {
+
+    private static final int ROOTS = 256;
+    private static final int UP = 3;
+    private static final int DOWN = 3;
+
+    @Param({"1000", "100000", "1000000"})
+    private int persons;
+
+    private ConfigurableApplicationContext context;
+    private TreeService treeService;
+    private TreeLayoutService treeLayoutService;
+    private GenealogyGraphService genealogyGraphService;
+    private final long[] roots = new long[ROOTS];
+    private int next;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkContext.start();
+        SyntheticFamily.populate(context.getBean(JdbcTemplate.class), persons);
+        treeService = context.getBean(TreeService.class);
+        treeLayoutService = context.getBean(TreeLayoutService.class);
+        genealogyGraphService = context.getBean(GenealogyGraphService.class);
+        // The rows were written behind the graph's back
+        genealogyGraphService.reload();
+
+        Random random = new Random(7);
+        for (int i = 0; i < ROOTS; i++) {
+            roots[i] = 1 + random.nextInt(persons);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TreeNodeDTO subtree() {
+        return treeService.getSubtree(nextRoot(), UP, DOWN);
+    }
+
+    @Benchmark
+    public TreeLayoutDTO layout() {
+        treeLayoutService.clear();
+        return treeLayoutService.getLayout(nextRoot(), UP, DOWN);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void graphReload() {
+        genealogyGraphService.reload();
+    }
+
+    private long nextRoot() {
+        long root = roots[next];
+        next = (next + 1) % ROOTS;
+        return root;
+    }
+}
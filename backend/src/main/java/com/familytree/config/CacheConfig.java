@@ -0,0 +1,68 @@
+package com.familytree.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache regions, held in-process by Caffeine. Entries are kept in sync by
+ * Hibernate on every JPA write; writes that bypass JPA must call EntityCacheService.evictAll().
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String PERSON_REGION = "person";
+    public static final String RELATIONSHIP_REGION = "relationship";
+    public static final String USER_REGION = "user";
+    public static final String USER_ROLES_REGION = "user-roles";
+    public static final String ROLE_REGION = "role";
+    public static final String QUERY_REGION = "default-query-results-region";
+    public static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    public static final List<String> ENTITY_REGIONS = List.of(PERSON_REGION, RELATIONSHIP_REGION, USER_REGION,
+            USER_ROLES_REGION, ROLE_REGION, QUERY_REGION);
+
+    @Value("${app.cache.maxEntries:10000}")
+    private long maxEntries;
+
+    @Value("${app.cache.ttlSeconds:600}")
+    private long ttlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        for (String region : ENTITY_REGIONS) {
+            cacheManager.createCache(region, regionConfiguration(OptionalLong.of(maxEntries),
+                    OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds))));
+        }
+        // Hibernate requires update timestamps to outlive every cached query result
+        cacheManager.createCache(TIMESTAMPS_REGION, regionConfiguration(OptionalLong.empty(), OptionalLong.empty()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(OptionalLong maximumSize,
+                                                                      OptionalLong expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        configuration.setMaximumSize(maximumSize);
+        configuration.setExpireAfterWrite(expireAfterWriteNanos);
+        return configuration;
+    }
+}
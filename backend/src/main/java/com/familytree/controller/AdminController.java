@@ -1,8 +1,13 @@
 package com.familytree.controller;
 
 import com.familytree.entity.User;
+import com.familytree.event.UserChangedEvent;
 import com.familytree.repository.UserRepository;
+import com.familytree.service.AuditLogWriter;
+import com.familytree.service.ChangeFeedService;
+import com.familytree.service.EntityCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -17,9 +22,21 @@ public class AdminController {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
     @Autowired
     com.familytree.repository.RoleRepository roleRepository;
 
+    @Autowired
+    EntityCacheService entityCacheService;
+
+    @Autowired
+    AuditLogWriter auditLogWriter;
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
     @GetMapping("/users")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
     public ResponseEntity<java.util.List<com.familytree.dto.UserResponse>> getAllUsers() {
@@ -57,6 +74,7 @@ public class AdminController {
 
         user.setActive(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
 
         return ResponseEntity.ok("User " + user.getUsername() + " activated successfully.");
     }
@@ -79,6 +97,7 @@ public class AdminController {
 
         user.setActive(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
 
         return ResponseEntity.ok("User " + user.getUsername() + " deactivated successfully.");
     }
@@ -110,7 +129,33 @@ public class AdminController {
         user.getRoles().clear();
         user.getRoles().add(roleOpt.get());
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
 
         return ResponseEntity.ok("User " + user.getUsername() + " role updated to " + cleanRoleName);
     }
+
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<java.util.List<com.familytree.dto.CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(entityCacheService.getStatistics());
+    }
+
+    @DeleteMapping("/cache")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<?> evictCache() {
+        entityCacheService.evictAll();
+        return ResponseEntity.ok("Entity cache cleared.");
+    }
+
+    @GetMapping("/audit-stats")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<com.familytree.dto.AuditStatsDTO> getAuditStats() {
+        return ResponseEntity.ok(auditLogWriter.getStatistics());
+    }
+
+    @GetMapping("/change-feed-stats")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<com.familytree.dto.ChangeFeedStatsDTO> getChangeFeedStats() {
+        return ResponseEntity.ok(changeFeedService.getStatistics());
+    }
 }
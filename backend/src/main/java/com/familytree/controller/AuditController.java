@@ -0,0 +1,25 @@
+package com.familytree.controller;
+
+import com.familytree.dto.AuditPageRequest;
+import com.familytree.dto.CursorPage;
+import com.familytree.entity.AuditLog;
+import com.familytree.service.AuditService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    @Autowired
+    private AuditService auditService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<CursorPage<AuditLog>> getAuditPage(AuditPageRequest request) {
+        return ResponseEntity.ok(auditService.getAuditPage(request));
+    }
+}
@@ -0,0 +1,77 @@
+package com.familytree.controller;
+
+import com.familytree.dto.CursorPage;
+import com.familytree.dto.DuplicateCandidateDTO;
+import com.familytree.dto.DuplicateScanJobDTO;
+import com.familytree.dto.PersonMergeRequest;
+import com.familytree.dto.PersonView;
+import com.familytree.service.DuplicateDetectionService;
+import com.familytree.service.PersonMergeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/duplicates")
+public class DuplicateController {
+
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @Autowired
+    private PersonMergeService personMergeService;
+
+    // Scans run in the background; poll the returned job for progress
+    @PostMapping("/jobs")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<?> startScan(@RequestParam(required = false) Double minScore) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(duplicateDetectionService.startScan(minScore));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/jobs")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<List<DuplicateScanJobDTO>> getJobs() {
+        return ResponseEntity.ok(duplicateDetectionService.getJobs());
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(duplicateDetectionService.getJob(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/jobs/{id}/candidates")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<?> getCandidates(@PathVariable Long id, @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, @RequestParam(required = false) Double minScore) {
+        try {
+            CursorPage<DuplicateCandidateDTO> page = duplicateDetectionService.getCandidates(id, cursor, size, minScore);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/merge")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<?> merge(@RequestBody PersonMergeRequest request) {
+        try {
+            return ResponseEntity.ok(PersonView.from(personMergeService.merge(request)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
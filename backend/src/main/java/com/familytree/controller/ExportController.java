@@ -0,0 +1,88 @@
+package com.familytree.controller;
+
+import com.familytree.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    private interface ExportWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    @GetMapping("/gedcom")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportGedcom(@RequestParam(defaultValue = "false") boolean gzip,
+                                                              HttpServletRequest request) {
+        return export(request, "family-tree.ged", "text/plain;charset=UTF-8", gzip, exportService::writeGedcom);
+    }
+
+    @GetMapping("/ndjson")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportNdjson(@RequestParam(defaultValue = "false") boolean gzip,
+                                                              HttpServletRequest request) {
+        return export(request, "family-tree.ndjson", "application/x-ndjson", gzip, exportService::writeNdjson);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(HttpServletRequest request, String fileName,
+                                                         String contentType, boolean gzip, ExportWriter writer) {
+        if (!exportService.tryBeginExport()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                exportService.endExport();
+            }
+        };
+        // The body may never run (the async dispatch can fail or time out first), so the permit is
+        // also returned when the async request completes, whichever way it ends
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportController.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        release.run();
+                    }
+                });
+        StreamingResponseBody body = out -> {
+            try {
+                if (gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                    writer.write(compressed);
+                    compressed.finish();
+                } else {
+                    writer.write(out);
+                }
+            } finally {
+                release.run();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + (gzip ? ".gz" : "") + "\"")
+                .body(body);
+    }
+}
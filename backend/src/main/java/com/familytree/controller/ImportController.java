@@ -0,0 +1,47 @@
+package com.familytree.controller;
+
+import com.familytree.dto.ImportJobDTO;
+import com.familytree.service.GedcomImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    @Autowired
+    private GedcomImportService gedcomImportService;
+
+    // The GEDCOM file is the raw request body so it can be streamed to disk; the import then runs
+    // in the background and is followed through /jobs/{id}
+    @PostMapping("/gedcom")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<ImportJobDTO> importGedcom(HttpServletRequest request) throws IOException {
+        ImportJobDTO job = gedcomImportService.startImport(request.getInputStream());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/jobs")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<List<ImportJobDTO>> getJobs() {
+        return ResponseEntity.ok(gedcomImportService.getJobs());
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(gedcomImportService.getJob(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+}
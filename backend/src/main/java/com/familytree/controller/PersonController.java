@@ -1,13 +1,28 @@
 package com.familytree.controller;
 
+import com.familytree.dto.CursorPage;
+import com.familytree.dto.KinshipDTO;
+import com.familytree.dto.LineageEntryDTO;
+import com.familytree.dto.PersonBatchItemDTO;
 import com.familytree.dto.PersonDTO;
+import com.familytree.dto.PersonPageRequest;
+import com.familytree.dto.PersonSearchResultDTO;
+import com.familytree.dto.PersonView;
 import com.familytree.entity.Person;
+import com.familytree.service.DataVersionService;
 import com.familytree.service.FileStorageService;
+import com.familytree.service.KinshipService;
+import com.familytree.service.PersonSearchService;
 import com.familytree.service.PersonService;
+import com.familytree.service.ThumbnailService;
+import com.familytree.util.ConditionalGet;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
@@ -23,9 +38,22 @@ public class PersonController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private KinshipService kinshipService;
+
+    @Autowired
+    private PersonSearchService personSearchService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
     @PostMapping("/upload")
     public ResponseEntity<String> uploadFile(@RequestParam("file") MultipartFile file) {
         String fileName = fileStorageService.storeFile(file);
+        thumbnailService.generateAsync(fileName);
 
         String fileDownloadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
                 .path("/uploads/")
@@ -35,15 +63,30 @@ public class PersonController {
         return ResponseEntity.ok(fileDownloadUri);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<PersonSearchResultDTO>> search(@RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(personSearchService.search(q, limit));
+    }
+
     @PostMapping
-    public ResponseEntity<Person> createPerson(@RequestBody PersonDTO personDTO) {
-        return ResponseEntity.ok(personService.createPerson(personDTO));
+    public ResponseEntity<PersonView> createPerson(@RequestBody PersonDTO personDTO) {
+        return ResponseEntity.ok(PersonView.from(personService.createPerson(personDTO)));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> saveBatch(@RequestBody List<PersonBatchItemDTO> items) {
+        try {
+            return ResponseEntity.ok(personService.saveBatch(items));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> updatePerson(@PathVariable Long id, @RequestBody PersonDTO personDTO) {
         try {
-            return ResponseEntity.ok(personService.updatePerson(id, personDTO));
+            return ResponseEntity.ok(PersonView.from(personService.updatePerson(id, personDTO)));
         } catch (RuntimeException e) {
             return ResponseEntity.status(org.springframework.http.HttpStatus.FORBIDDEN).body(e.getMessage());
         }
@@ -61,12 +104,47 @@ public class PersonController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Person>> getAllPersons() {
-        return ResponseEntity.ok(personService.getAllPersons());
+    public ResponseEntity<List<PersonView>> getAllPersons(WebRequest request) {
+        return ConditionalGet.respond(request, dataVersionService.currentEtag(),
+                () -> personService.getAllPersons().stream().map(PersonView::from).toList());
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamPersons() {
+        StreamingResponseBody body = out -> personService.writePersonsAsNdjson(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<PersonView>> getPersonPage(PersonPageRequest request) {
+        CursorPage<Person> page = personService.getPersonPage(request);
+        return ResponseEntity.ok(new CursorPage<>(page.getItems().stream().map(PersonView::from).toList(),
+                page.getNextCursor(), page.isHasMore()));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Person> getPerson(@PathVariable Long id) {
-        return ResponseEntity.ok(personService.getPerson(id));
+    public ResponseEntity<PersonView> getPerson(@PathVariable Long id, WebRequest request) {
+        // Usually served from the second-level cache, so a 304 costs no query either
+        Person person = personService.getPerson(id);
+        return ConditionalGet.respond(request, "W/\"v" + person.getVersion() + "\"", () -> PersonView.from(person));
+    }
+
+    @GetMapping("/{id}/ancestors")
+    public ResponseEntity<List<LineageEntryDTO>> getAncestors(@PathVariable Long id,
+                                                              @RequestParam(defaultValue = "5") int depth) {
+        return ResponseEntity.ok(personService.getAncestors(id, depth));
+    }
+
+    @GetMapping("/{id}/descendants")
+    public ResponseEntity<List<LineageEntryDTO>> getDescendants(@PathVariable Long id,
+                                                                @RequestParam(defaultValue = "5") int depth) {
+        return ResponseEntity.ok(personService.getDescendants(id, depth));
+    }
+
+    @GetMapping("/{id}/relation-to/{otherId}")
+    public ResponseEntity<KinshipDTO> getRelation(@PathVariable Long id, @PathVariable Long otherId) {
+        return ResponseEntity.ok(kinshipService.describe(id, otherId));
     }
 }
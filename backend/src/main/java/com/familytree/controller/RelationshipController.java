@@ -1,11 +1,16 @@
 package com.familytree.controller;
 
+import com.familytree.dto.CursorPage;
 import com.familytree.dto.RelationshipDTO;
+import com.familytree.dto.RelationshipPageRequest;
 import com.familytree.entity.Relationship;
+import com.familytree.service.DataVersionService;
 import com.familytree.service.RelationshipService;
+import com.familytree.util.ConditionalGet;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,11 +22,23 @@ public class RelationshipController {
     @Autowired
     private RelationshipService relationshipService;
 
+    @Autowired
+    private DataVersionService dataVersionService;
+
     @PostMapping
     public ResponseEntity<Relationship> addRelationship(@RequestBody RelationshipDTO dto) {
         return ResponseEntity.ok(relationshipService.addRelationship(dto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> addRelationships(@RequestBody List<RelationshipDTO> dtos) {
+        try {
+            return ResponseEntity.ok(relationshipService.addRelationships(dtos));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteRelationship(@PathVariable Long id) {
         relationshipService.deleteRelationship(id);
@@ -29,12 +46,19 @@ public class RelationshipController {
     }
 
     @GetMapping("/person/{personId}")
-    public ResponseEntity<List<Relationship>> getRelationships(@PathVariable Long personId) {
-        return ResponseEntity.ok(relationshipService.getRelationshipsForPerson(personId));
+    public ResponseEntity<List<Relationship>> getRelationships(@PathVariable Long personId, WebRequest request) {
+        return ConditionalGet.respond(request, dataVersionService.currentEtag(),
+                () -> relationshipService.getRelationshipsForPerson(personId));
     }
 
     @GetMapping
-    public ResponseEntity<List<Relationship>> getAllRelationships() {
-        return ResponseEntity.ok(relationshipService.getAllRelationships());
+    public ResponseEntity<List<Relationship>> getAllRelationships(WebRequest request) {
+        return ConditionalGet.respond(request, dataVersionService.currentEtag(),
+                relationshipService::getAllRelationships);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Relationship>> getRelationshipPage(RelationshipPageRequest request) {
+        return ResponseEntity.ok(relationshipService.getRelationshipPage(request));
     }
 }
@@ -2,9 +2,11 @@ package com.familytree.controller;
 
 import com.familytree.entity.Role;
 import com.familytree.entity.User;
+import com.familytree.event.UserChangedEvent;
 import com.familytree.repository.RoleRepository;
 import com.familytree.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +24,9 @@ public class RoleController {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
     @PostMapping
     public ResponseEntity<?> createRole(@RequestBody Role role) {
         if (roleRepository.findByName(role.getName()).isPresent()) {
@@ -48,6 +53,7 @@ public class RoleController {
 
         user.getRoles().add(role);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
 
         return ResponseEntity.ok("Role " + role.getName() + " assigned to user " + user.getUsername());
     }
@@ -0,0 +1,29 @@
+package com.familytree.controller;
+
+import com.familytree.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    /**
+     * Without {@code since} this pages through the whole database; afterwards pass the previous
+     * response's nextToken to receive only what changed.
+     */
+    @GetMapping
+    public ResponseEntity<?> sync(@RequestParam(required = false) String since,
+                                  @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(syncService.changesSince(since, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
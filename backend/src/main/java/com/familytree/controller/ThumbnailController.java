@@ -0,0 +1,52 @@
+package com.familytree.controller;
+
+import com.familytree.service.FileStorageService;
+import com.familytree.service.ThumbnailService;
+import com.familytree.util.StaticFileResponder;
+import com.familytree.util.ThumbnailSize;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Serves photo thumbnails next to the originals in /uploads, rendering missing sizes on demand.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/uploads/thumbs")
+public class ThumbnailController {
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @GetMapping("/{size}/{*path}")
+    public void getThumbnail(@PathVariable String size, @PathVariable String path, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ThumbnailSize thumbnailSize = ThumbnailSize.fromPathSegment(size);
+        if (thumbnailSize == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String fileName = path.startsWith("/") ? path.substring(1) : path;
+        Path thumbnail;
+        try {
+            thumbnail = thumbnailService.getThumbnail(fileName, thumbnailSize);
+        } catch (RuntimeException e) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        // A content-addressed original never changes, so neither do its renditions
+        boolean immutable = FileStorageService.contentHashOf(fileName) != null;
+        StaticFileResponder.write(request, response, thumbnail, MediaType.IMAGE_JPEG,
+                immutable ? UploadController.IMMUTABLE : UploadController.REVALIDATE, null);
+    }
+}
@@ -0,0 +1,35 @@
+package com.familytree.controller;
+
+import com.familytree.dto.TreeLayoutDTO;
+import com.familytree.dto.TreeNodeDTO;
+import com.familytree.service.TreeLayoutService;
+import com.familytree.service.TreeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/tree")
+public class TreeController {
+
+    @Autowired
+    private TreeService treeService;
+
+    @Autowired
+    private TreeLayoutService treeLayoutService;
+
+    @GetMapping("/{rootId}")
+    public ResponseEntity<TreeNodeDTO> getSubtree(@PathVariable Long rootId,
+                                                  @RequestParam(defaultValue = "2") int up,
+                                                  @RequestParam(defaultValue = "2") int down) {
+        return ResponseEntity.ok(treeService.getSubtree(rootId, up, down));
+    }
+
+    @GetMapping("/{rootId}/layout")
+    public ResponseEntity<TreeLayoutDTO> getLayout(@PathVariable Long rootId,
+                                                   @RequestParam(defaultValue = "2") int up,
+                                                   @RequestParam(defaultValue = "2") int down) {
+        return ResponseEntity.ok(treeLayoutService.getLayout(rootId, up, down));
+    }
+}
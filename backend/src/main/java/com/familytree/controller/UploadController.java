@@ -0,0 +1,50 @@
+package com.familytree.controller;
+
+import com.familytree.service.FileStorageService;
+import com.familytree.util.StaticFileResponder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves uploaded files. Content-addressed uploads are named after their SHA-256, which doubles
+ * as a strong ETag, and are cached by clients for a year without revalidation.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/uploads")
+public class UploadController {
+
+    // Uploads are family photos served only to signed-in users, so shared caches must not keep them
+    static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+    static final CacheControl REVALIDATE = CacheControl.maxAge(1, TimeUnit.DAYS).cachePrivate();
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @GetMapping("/{*path}")
+    public void getUpload(@PathVariable String path, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String fileName = path.startsWith("/") ? path.substring(1) : path;
+        Path file = fileStorageService.resolveUpload(fileName);
+        if (file == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String hash = FileStorageService.contentHashOf(fileName);
+        MediaType contentType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        StaticFileResponder.write(request, response, file, contentType, hash != null ? IMMUTABLE : REVALIDATE, hash);
+    }
+}
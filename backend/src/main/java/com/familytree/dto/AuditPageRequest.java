@@ -0,0 +1,20 @@
+package com.familytree.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AuditPageRequest {
+    private String cursor;
+    private Integer size;
+    private String entityName; // PERSON, RELATIONSHIP, ...
+    private Long entityId;
+    private String action;
+    private Long changedBy;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from; // Inclusive
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to; // Exclusive
+}
@@ -0,0 +1,19 @@
+package com.familytree.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuditStatsDTO {
+    private int queueDepth;
+    private int queueCapacity;
+    private long enqueued;
+    private long written;
+    private long failed;
+    private long writtenByCaller; // Events written synchronously because the queue stayed full
+    private long oldestPendingMs;
+    private long lastBatchLagMs;
+}
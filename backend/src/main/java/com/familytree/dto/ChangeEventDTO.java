@@ -0,0 +1,22 @@
+package com.familytree.dto;
+
+import com.familytree.event.ChangeAction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Payload of a "change" event on the live feed. {@code changes} holds the new values of the fields
+ * that changed; when it is null the client should re-fetch the entity.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeEventDTO {
+    private String entity; // PERSON or RELATIONSHIP
+    private Long id;
+    private ChangeAction action;
+    private Map<String, Object> changes;
+}
@@ -0,0 +1,17 @@
+package com.familytree.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeFeedStatsDTO {
+    private int subscribers;
+    private int maxSubscribers;
+    private long published;
+    private long resumed;
+    private long resets; // Subscribers told to reload because their position was no longer replayable
+    private long overflowed; // Subscribers disconnected because their buffer filled up
+}
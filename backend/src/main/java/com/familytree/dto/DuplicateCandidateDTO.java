@@ -0,0 +1,24 @@
+package com.familytree.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * A likely duplicate pair with its overall score and the per-signal scores behind it (null when
+ * one side lacks the data).
+ */
+@Data
+public class DuplicateCandidateDTO {
+    private Long person1Id;
+    private String person1Name;
+    private LocalDate person1BirthDate;
+    private Long person2Id;
+    private String person2Name;
+    private LocalDate person2BirthDate;
+    private double score;
+    private double nameScore;
+    private Double birthScore;
+    private Double deathScore;
+    private Double parentScore;
+}
@@ -0,0 +1,22 @@
+package com.familytree.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Written by the scan thread while request threads read it
+@Data
+public class DuplicateScanJobDTO {
+    private volatile Long id;
+    private volatile String state; // RUNNING, COMPLETED, FAILED
+    private volatile String phase; // Current step: LOADING, BLOCKING, SCORING or DONE
+    private volatile long personsScanned;
+    private volatile long blocks;
+    private volatile long comparisons;
+    private volatile long candidatesFound;
+    private volatile double minScore;
+    private volatile int parallelism;
+    private volatile LocalDateTime startedAt;
+    private volatile long elapsedMs;
+    private volatile String error;
+}
@@ -0,0 +1,24 @@
+package com.familytree.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Written by the import thread while request threads read it
+@Data
+public class ImportJobDTO {
+    private volatile Long id;
+    private volatile String format;
+    private volatile String state; // RUNNING, COMPLETED, FAILED
+    private volatile String phase; // QUEUED, then the current pass: INDIVIDUALS, FAMILIES, INDEXING or DONE
+    private volatile long linesRead;
+    private volatile long skippedLines;
+    private volatile long personsImported;
+    private volatile long relationshipsImported;
+    private volatile long parentLinks;
+    private volatile long unresolvedReferences;
+    private volatile LocalDateTime startedAt;
+    private volatile long elapsedMs;
+    private volatile double personsPerSecond;
+    private volatile String error;
+}
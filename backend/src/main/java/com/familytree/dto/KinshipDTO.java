@@ -0,0 +1,18 @@
+package com.familytree.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class KinshipDTO {
+    private Long personId;
+    private Long relativeId;
+    private boolean related;
+    private String relation; // How the relative is related to the person, e.g. "second cousin once removed"
+    private Long commonAncestorId;
+    private List<KinshipStepDTO> path = new ArrayList<>();
+}
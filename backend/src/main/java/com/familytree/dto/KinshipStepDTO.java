@@ -0,0 +1,14 @@
+package com.familytree.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KinshipStepDTO {
+    private Long personId;
+    private String fullName;
+    private String link; // SELF, PARENT, CHILD, SPOUSE relative to the previous step
+}
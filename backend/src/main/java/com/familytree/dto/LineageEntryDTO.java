@@ -0,0 +1,23 @@
+package com.familytree.dto;
+
+import com.familytree.entity.Gender;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class LineageEntryDTO {
+    private Long id;
+    private String fullName;
+    private Gender gender;
+    private LocalDate dateOfBirth;
+    private LocalDate dateOfDeath;
+    private Boolean isAlive;
+    private String imageUrl;
+    private String thumbnailUrl;
+    private Long fatherId;
+    private Long motherId;
+    private int generation;
+    private List<Long> path;
+}
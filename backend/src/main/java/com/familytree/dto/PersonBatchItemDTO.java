@@ -0,0 +1,18 @@
+package com.familytree.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * One entry of a person batch. Entries with an id update that person; entries without one are
+ * created and may carry a client-side tempId so later entries can name them as a parent.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class PersonBatchItemDTO extends PersonDTO {
+    private String tempId;
+    private String fatherTempId;
+    private String motherTempId;
+}
@@ -0,0 +1,17 @@
+package com.familytree.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saved persons in request order, plus the database id assigned to each client tempId.
+ */
+@Data
+@AllArgsConstructor
+public class PersonBatchResultDTO {
+    private Map<String, Long> ids;
+    private List<PersonView> persons;
+}
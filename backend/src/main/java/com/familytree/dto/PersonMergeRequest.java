@@ -0,0 +1,9 @@
+package com.familytree.dto;
+
+import lombok.Data;
+
+@Data
+public class PersonMergeRequest {
+    private Long keepId;   // Survives and takes over the other person's links
+    private Long removeId; // Deleted after its links are repointed
+}
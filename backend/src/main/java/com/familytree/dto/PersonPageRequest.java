@@ -0,0 +1,22 @@
+package com.familytree.dto;
+
+import com.familytree.entity.Gender;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class PersonPageRequest {
+    private String cursor;
+    private Integer size;
+    private String name; // fullName prefix
+    private Gender gender;
+    private Boolean alive;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate bornFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate bornTo;
+    private String sort = "name"; // name, dateOfBirth or updatedAt
+    private String direction = "asc";
+}
@@ -0,0 +1,12 @@
+package com.familytree.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PersonSearchResultDTO {
+    private Long id;
+    private String fullName;
+    private double score;
+}
@@ -0,0 +1,56 @@
+package com.familytree.dto;
+
+import com.familytree.entity.Gender;
+import com.familytree.entity.Person;
+import com.familytree.util.ThumbnailSize;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat API representation of a person; parents are referenced by id only.
+ */
+@Data
+public class PersonView {
+    private Long id;
+    private String fullName;
+    private Gender gender;
+    private LocalDate dateOfBirth;
+    private LocalDate dateOfDeath;
+    private Boolean isAlive;
+    private String imageUrl;
+    // Small avatar-sized rendition of imageUrl (see ThumbnailSize for the other sizes)
+    private String thumbnailUrl;
+    private String contactNumber;
+    private String email;
+    private Long fatherId;
+    private Long motherId;
+    private Long createdBy;
+    private Long updatedBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+
+    public static PersonView from(Person person) {
+        PersonView view = new PersonView();
+        view.setId(person.getId());
+        view.setFullName(person.getFullName());
+        view.setGender(person.getGender());
+        view.setDateOfBirth(person.getDateOfBirth());
+        view.setDateOfDeath(person.getDateOfDeath());
+        view.setIsAlive(person.getIsAlive());
+        view.setImageUrl(person.getImageUrl());
+        view.setThumbnailUrl(ThumbnailSize.SMALL.urlFor(person.getImageUrl()));
+        view.setContactNumber(person.getContactNumber());
+        view.setEmail(person.getEmail());
+        view.setFatherId(person.getFatherId());
+        view.setMotherId(person.getMotherId());
+        view.setCreatedBy(person.getCreatedBy());
+        view.setUpdatedBy(person.getUpdatedBy());
+        view.setCreatedAt(person.getCreatedAt());
+        view.setUpdatedAt(person.getUpdatedAt());
+        view.setVersion(person.getVersion());
+        return view;
+    }
+}
@@ -0,0 +1,12 @@
+package com.familytree.dto;
+
+import com.familytree.entity.RelationshipType;
+import lombok.Data;
+
+@Data
+public class RelationshipPageRequest {
+    private String cursor;
+    private Integer size;
+    private Long personId;
+    private RelationshipType relationshipType;
+}
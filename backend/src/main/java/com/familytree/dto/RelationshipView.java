@@ -0,0 +1,42 @@
+package com.familytree.dto;
+
+import com.familytree.entity.Relationship;
+import com.familytree.entity.RelationshipType;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat representation of a relationship; the two persons are referenced by id only.
+ */
+@Data
+public class RelationshipView {
+    private Long id;
+    private Long person1Id;
+    private Long person2Id;
+    private RelationshipType relationshipType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long createdBy;
+    private Long updatedBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+
+    public static RelationshipView from(Relationship relationship) {
+        RelationshipView view = new RelationshipView();
+        view.setId(relationship.getId());
+        view.setPerson1Id(relationship.getPerson1().getId());
+        view.setPerson2Id(relationship.getPerson2().getId());
+        view.setRelationshipType(relationship.getRelationshipType());
+        view.setStartDate(relationship.getStartDate());
+        view.setEndDate(relationship.getEndDate());
+        view.setCreatedBy(relationship.getCreatedBy());
+        view.setUpdatedBy(relationship.getUpdatedBy());
+        view.setCreatedAt(relationship.getCreatedAt());
+        view.setUpdatedAt(relationship.getUpdatedAt());
+        view.setVersion(relationship.getVersion());
+        return view;
+    }
+}
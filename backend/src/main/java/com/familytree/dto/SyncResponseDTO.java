@@ -0,0 +1,25 @@
+package com.familytree.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of changes since a sync token. Clients upsert {@code persons} and {@code relationships},
+ * then drop everything in {@code deleted}, and call again with {@code nextToken} while
+ * {@code hasMore} is set. Rows near the end of the window may be sent again on the next sync.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncResponseDTO {
+    private List<PersonView> persons;
+    private List<RelationshipView> relationships;
+    private List<TombstoneDTO> deleted;
+    private String nextToken;
+    private boolean hasMore;
+    // The token predates the retained tombstones: drop local data and sync again without a token
+    private boolean fullResync;
+}
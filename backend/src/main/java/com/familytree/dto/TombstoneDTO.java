@@ -0,0 +1,16 @@
+package com.familytree.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TombstoneDTO {
+    private String entity; // PERSON or RELATIONSHIP
+    private Long id;
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,22 @@
+package com.familytree.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A subtree laid out for painting. Coordinates start at 0,0 in the top-left corner.
+ */
+@Data
+public class TreeLayoutDTO {
+    private Long rootId;
+    private int up;
+    private int down;
+    private double nodeWidth;
+    private double nodeHeight;
+    private double width;
+    private double height;
+    private List<TreeLayoutNodeDTO> nodes = new ArrayList<>();
+    private List<TreeLayoutEdgeDTO> edges = new ArrayList<>();
+}
@@ -0,0 +1,24 @@
+package com.familytree.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A connector between two cards as an orthogonal polyline of [x, y] points. PARENT edges run from
+ * a parent (or the midpoint of a couple) down to a child; SPOUSE edges join partners on one row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TreeLayoutEdgeDTO {
+    private String type;
+    private Long fromId;
+    private Long toId;
+    private Long relationshipId;
+    private List<double[]> points;
+}
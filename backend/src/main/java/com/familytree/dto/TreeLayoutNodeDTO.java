@@ -0,0 +1,27 @@
+package com.familytree.dto;
+
+import com.familytree.entity.Gender;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * A positioned person card; x/y are the centre of the card.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TreeLayoutNodeDTO {
+    private Long personId;
+    private String fullName;
+    private Gender gender;
+    private LocalDate dateOfBirth;
+    private LocalDate dateOfDeath;
+    private String thumbnailUrl;
+    private double x;
+    private double y;
+    // 0 for the root's row, negative above it (ancestors), positive below (descendants)
+    private int generation;
+    // Set on the second and later cards of a person drawn more than once (e.g. cousin marriages)
+    private Boolean repeated;
+}
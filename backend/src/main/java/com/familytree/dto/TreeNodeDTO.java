@@ -0,0 +1,32 @@
+package com.familytree.dto;
+
+import com.familytree.entity.Gender;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class TreeNodeDTO {
+    private Long id;
+    private String fullName;
+    private Gender gender;
+    private LocalDate dateOfBirth;
+    private LocalDate dateOfDeath;
+    private Boolean isAlive;
+    private String imageUrl;
+    private String thumbnailUrl;
+    private Long fatherId;
+    private Long motherId;
+
+    // Ancestor direction (filled for the root and its ancestors)
+    private TreeNodeDTO father;
+    private TreeNodeDTO mother;
+
+    // Descendant direction (filled for the root and its descendants)
+    private List<TreeSpouseDTO> spouses = new ArrayList<>();
+    private List<TreeNodeDTO> children = new ArrayList<>();
+}
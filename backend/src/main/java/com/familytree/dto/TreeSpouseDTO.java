@@ -0,0 +1,21 @@
+package com.familytree.dto;
+
+import com.familytree.entity.RelationshipType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TreeSpouseDTO {
+    private Long relationshipId;
+    private RelationshipType relationshipType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private TreeNodeDTO person;
+}
@@ -9,7 +9,12 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_entity", columnList = "entity_name, entity_id, changed_at, id"),
+        @Index(name = "idx_audit_changed_by", columnList = "changed_by, changed_at, id"),
+        @Index(name = "idx_audit_action", columnList = "action, changed_at, id"),
+        @Index(name = "idx_audit_changed_at", columnList = "changed_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,9 +1,15 @@
 package com.familytree.entity;
 
+import com.familytree.config.CacheConfig;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,7 +17,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "person")
+@Table(name = "person", indexes = {
+        @Index(name = "idx_person_full_name", columnList = "full_name, id"),
+        @Index(name = "idx_person_gender_alive_name", columnList = "gender, is_alive, full_name, id"),
+        @Index(name = "idx_person_date_of_birth", columnList = "date_of_birth, id"),
+        @Index(name = "idx_person_updated_at", columnList = "updated_at, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.PERSON_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,11 +48,19 @@ public class Person {
     private String contactNumber;
     private String email;
 
-    @ManyToOne
+    // Parents are lazy and serialized as fatherId/motherId only, so a person's JSON never
+    // embeds its whole ancestry
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "father_id")
     private Person father;
 
-    @ManyToOne
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "mother_id")
     private Person mother;
 
@@ -56,4 +76,18 @@ public class Person {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    // Optimistic lock and the validator behind per-entity ETags; the default covers rows that
+    // predate the column
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    public Long getFatherId() {
+        return father != null ? father.getId() : null;
+    }
+
+    public Long getMotherId() {
+        return mother != null ? mother.getId() : null;
+    }
 }
@@ -1,9 +1,12 @@
 package com.familytree.entity;
 
+import com.familytree.config.CacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,7 +14,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "relationships")
+@Table(name = "relationships", indexes = {
+        @Index(name = "idx_relationship_updated_at", columnList = "updated_at, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.RELATIONSHIP_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -48,4 +54,8 @@ public class Relationship {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
@@ -1,12 +1,16 @@
 package com.familytree.entity;
 
+import com.familytree.config.CacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "roles")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.ROLE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
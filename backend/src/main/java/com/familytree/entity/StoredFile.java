@@ -0,0 +1,47 @@
+package com.familytree.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One physical upload, stored once per distinct content. {@code refCount} is the number of
+ * persons whose image points at it.
+ */
+@Entity
+@Table(name = "stored_file", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stored_file_sha256", columnNames = "sha256")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    // Relative to the uploads directory, e.g. ab/cd/abcd...ef.jpg
+    @Column(nullable = false)
+    private String path;
+
+    private Long size;
+
+    private String contentType;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    // Last time an upload returned this file; recently handed-out files are not deleted
+    private LocalDateTime lastUploadedAt;
+}
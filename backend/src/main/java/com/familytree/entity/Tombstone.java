@@ -0,0 +1,36 @@
+package com.familytree.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a hard-deleted person or relationship, kept so delta sync can report the removal.
+ */
+@Entity
+@Table(name = "tombstones", indexes = {
+        @Index(name = "idx_tombstone_deleted_at", columnList = "deleted_at, id"),
+        @Index(name = "idx_tombstone_entity_name", columnList = "entity_name, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // PERSON or RELATIONSHIP, or RESYNC for a marker that invalidates older sync tokens
+    @Column(nullable = false, length = 20)
+    private String entityName;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -1,9 +1,12 @@
 package com.familytree.entity;
 
+import com.familytree.config.CacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,6 +14,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.USER_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,6 +36,7 @@ public class User {
     @Column(nullable = false)
     private boolean active = false;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.USER_ROLES_REGION)
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -0,0 +1,17 @@
+package com.familytree.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class AuditEvent {
+    private String entityName;
+    private Long entityId;
+    private String action;
+    private Long changedBy;
+    private String details;
+    private LocalDateTime changedAt;
+}
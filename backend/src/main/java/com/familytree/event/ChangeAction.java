@@ -0,0 +1,7 @@
+package com.familytree.event;
+
+public enum ChangeAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
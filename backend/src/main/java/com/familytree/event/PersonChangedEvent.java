@@ -0,0 +1,18 @@
+package com.familytree.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class PersonChangedEvent {
+    private Long personId;
+    private String fullName;
+    private Long fatherId;
+    private Long motherId;
+    private ChangeAction action;
+    // New values of the fields that changed, keyed as in PersonView; null when not known
+    private Map<String, Object> changes;
+}
@@ -0,0 +1,15 @@
+package com.familytree.event;
+
+import com.familytree.entity.RelationshipType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RelationshipChangedEvent {
+    private Long relationshipId;
+    private Long person1Id;
+    private Long person2Id;
+    private RelationshipType relationshipType;
+    private ChangeAction action;
+}
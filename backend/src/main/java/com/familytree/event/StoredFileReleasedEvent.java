@@ -0,0 +1,10 @@
+package com.familytree.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StoredFileReleasedEvent {
+    private String sha256;
+}
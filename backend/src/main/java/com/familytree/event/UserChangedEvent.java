@@ -0,0 +1,11 @@
+package com.familytree.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserChangedEvent {
+    private Long userId;
+    private String username;
+}
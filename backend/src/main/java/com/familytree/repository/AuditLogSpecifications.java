@@ -0,0 +1,36 @@
+package com.familytree.repository;
+
+import com.familytree.entity.AuditLog;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class AuditLogSpecifications {
+
+    private AuditLogSpecifications() {
+    }
+
+    public static Specification<AuditLog> hasEntityName(String entityName) {
+        return (root, query, cb) -> cb.equal(root.get("entityName"), entityName);
+    }
+
+    public static Specification<AuditLog> hasEntityId(Long entityId) {
+        return (root, query, cb) -> cb.equal(root.get("entityId"), entityId);
+    }
+
+    public static Specification<AuditLog> hasAction(String action) {
+        return (root, query, cb) -> cb.equal(root.get("action"), action);
+    }
+
+    public static Specification<AuditLog> changedBy(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("changedBy"), userId);
+    }
+
+    public static Specification<AuditLog> changedOnOrAfter(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("changedAt"), from);
+    }
+
+    public static Specification<AuditLog> changedBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("changedAt"), to);
+    }
+}
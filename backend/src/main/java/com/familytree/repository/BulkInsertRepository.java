@@ -0,0 +1,137 @@
+package com.familytree.repository;
+
+import com.familytree.entity.Person;
+import com.familytree.entity.Relationship;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch writes for bulk loads. Ids stay IDENTITY-generated; the driver returns the keys of
+ * a batched insert in row order, so they are copied back onto the entities. These writes bypass
+ * JPA, so callers must refresh the entity cache and graph index afterwards.
+ */
+@Repository
+public class BulkInsertRepository {
+
+    private static final String INSERT_PERSON = "INSERT INTO person (full_name, gender, date_of_birth, "
+            + "date_of_death, is_alive, image_url, contact_number, email, father_id, mother_id, created_by, "
+            + "updated_by, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String UPDATE_PARENTS = "UPDATE person SET father_id = ?, mother_id = ? WHERE id = ?";
+
+    private static final String INSERT_RELATIONSHIP = "INSERT INTO relationships (person1_id, person2_id, "
+            + "relationship_type, start_date, end_date, created_by, updated_by, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void insertPersons(List<Person> persons) {
+        if (persons.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_PERSON, Statement.RETURN_GENERATED_KEYS)) {
+                for (Person person : persons) {
+                    ps.setString(1, person.getFullName());
+                    ps.setString(2, person.getGender().name());
+                    ps.setDate(3, toSqlDate(person.getDateOfBirth()));
+                    ps.setDate(4, toSqlDate(person.getDateOfDeath()));
+                    ps.setObject(5, person.getIsAlive());
+                    ps.setString(6, person.getImageUrl());
+                    ps.setString(7, person.getContactNumber());
+                    ps.setString(8, person.getEmail());
+                    ps.setObject(9, person.getFatherId());
+                    ps.setObject(10, person.getMotherId());
+                    ps.setObject(11, person.getCreatedBy());
+                    ps.setObject(12, person.getUpdatedBy());
+                    ps.setTimestamp(13, toTimestamp(person.getCreatedAt()));
+                    ps.setTimestamp(14, toTimestamp(person.getUpdatedAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                readGeneratedKeys(ps, persons.size(), (index, id) -> {
+                    persons.get(index).setId(id);
+                    persons.get(index).setVersion(0L);
+                });
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Sets father_id/mother_id from each person's father and mother references. Only used on rows
+     * inserted in the same transaction, so their version is left at 0.
+     */
+    public void updateParents(List<Person> persons) {
+        jdbcTemplate.batchUpdate(UPDATE_PARENTS, persons, persons.size(), (ps, person) -> {
+            ps.setObject(1, person.getFatherId());
+            ps.setObject(2, person.getMotherId());
+            ps.setLong(3, person.getId());
+        });
+    }
+
+    public void insertRelationships(List<Relationship> relationships) {
+        if (relationships.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_RELATIONSHIP, Statement.RETURN_GENERATED_KEYS)) {
+                for (Relationship relationship : relationships) {
+                    ps.setLong(1, relationship.getPerson1().getId());
+                    ps.setLong(2, relationship.getPerson2().getId());
+                    ps.setString(3, relationship.getRelationshipType().name());
+                    ps.setDate(4, toSqlDate(relationship.getStartDate()));
+                    ps.setDate(5, toSqlDate(relationship.getEndDate()));
+                    ps.setObject(6, relationship.getCreatedBy());
+                    ps.setObject(7, relationship.getUpdatedBy());
+                    ps.setTimestamp(8, toTimestamp(relationship.getCreatedAt()));
+                    ps.setTimestamp(9, toTimestamp(relationship.getUpdatedAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                readGeneratedKeys(ps, relationships.size(), (index, id) -> {
+                    relationships.get(index).setId(id);
+                    relationships.get(index).setVersion(0L);
+                });
+            }
+            return null;
+        });
+    }
+
+    private interface KeyConsumer {
+        void accept(int index, long id);
+    }
+
+    private void readGeneratedKeys(PreparedStatement ps, int expected, KeyConsumer consumer) throws SQLException {
+        int index = 0;
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            while (keys.next() && index < expected) {
+                consumer.accept(index++, keys.getLong(1));
+            }
+        }
+        if (index != expected) {
+            throw new IllegalStateException("Expected " + expected + " generated keys but got " + index);
+        }
+    }
+
+    private static Date toSqlDate(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+}
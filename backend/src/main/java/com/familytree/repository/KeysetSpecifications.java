@@ -0,0 +1,42 @@
+package com.familytree.repository;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class KeysetSpecifications {
+
+    private KeysetSpecifications() {
+    }
+
+    /**
+     * Rows strictly after ({@code value}, {@code id}) in ORDER BY attribute, id. Matches MySQL null
+     * ordering: NULLs sort first ascending and last descending.
+     */
+    public static <T, V extends Comparable<? super V>> Specification<T> after(String attribute, V value, Long id,
+                                                                               boolean descending) {
+        return (root, query, cb) -> {
+            Path<V> sortKey = root.get(attribute);
+            Path<Long> idKey = root.get("id");
+            Predicate tieBreak = descending ? cb.lessThan(idKey, id) : cb.greaterThan(idKey, id);
+            if (value == null) {
+                Predicate sameNull = cb.and(cb.isNull(sortKey), tieBreak);
+                return descending ? sameNull : cb.or(sameNull, cb.isNotNull(sortKey));
+            }
+            Predicate beyond = descending ? cb.lessThan(sortKey, value) : cb.greaterThan(sortKey, value);
+            Predicate next = cb.or(beyond, cb.and(cb.equal(sortKey, value), tieBreak));
+            return descending ? cb.or(next, cb.isNull(sortKey)) : next;
+        };
+    }
+
+    /**
+     * Rows strictly after {@code id} in ORDER BY id.
+     */
+    public static <T> Specification<T> afterId(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,19 @@
+package com.familytree.repository;
+
+import com.familytree.entity.Gender;
+
+import java.time.LocalDate;
+
+public interface LineageRow {
+    Long getId();
+    String getFullName();
+    Gender getGender();
+    LocalDate getDateOfBirth();
+    LocalDate getDateOfDeath();
+    Boolean getIsAlive();
+    String getImageUrl();
+    Long getFatherId();
+    Long getMotherId();
+    Integer getGeneration();
+    String getPath();
+}
@@ -1,12 +1,67 @@
 package com.familytree.repository;
 
 import com.familytree.entity.Person;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface PersonRepository extends JpaRepository<Person, Long> {
+public interface PersonRepository extends JpaRepository<Person, Long>, JpaSpecificationExecutor<Person> {
     List<Person> findByCreatedBy(Long userId);
+
+    // Reads through a server-side cursor (useCursorFetch) instead of buffering the whole result;
+    // rows neither come from nor go into the second-level cache
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("select p from Person p order by p.id")
+    Stream<Person> streamAll();
+
+    @Query(value = "WITH RECURSIVE lineage (id, generation, path) AS ("
+            + " SELECT p.id, 0, CAST(p.id AS CHAR(2000)) FROM person p WHERE p.id = :id"
+            + " UNION ALL"
+            + " SELECT child.father_id, l.generation + 1, CONCAT(l.path, ',', child.father_id)"
+            + " FROM lineage l JOIN person child ON child.id = l.id"
+            + " WHERE child.father_id IS NOT NULL AND l.generation < :depth"
+            + " AND FIND_IN_SET(child.father_id, l.path) = 0"
+            + " UNION ALL"
+            + " SELECT child.mother_id, l.generation + 1, CONCAT(l.path, ',', child.mother_id)"
+            + " FROM lineage l JOIN person child ON child.id = l.id"
+            + " WHERE child.mother_id IS NOT NULL AND l.generation < :depth"
+            + " AND FIND_IN_SET(child.mother_id, l.path) = 0)"
+            + " SELECT p.id AS id, p.full_name AS fullName, p.gender AS gender,"
+            + " p.date_of_birth AS dateOfBirth, p.date_of_death AS dateOfDeath, p.is_alive AS isAlive,"
+            + " p.image_url AS imageUrl, p.father_id AS fatherId, p.mother_id AS motherId,"
+            + " l.generation AS generation, l.path AS path"
+            + " FROM lineage l JOIN person p ON p.id = l.id"
+            + " ORDER BY l.generation, l.path", nativeQuery = true)
+    List<LineageRow> findAncestors(@Param("id") Long id, @Param("depth") int depth);
+
+    @Query(value = "WITH RECURSIVE lineage (id, generation, path) AS ("
+            + " SELECT p.id, 0, CAST(p.id AS CHAR(2000)) FROM person p WHERE p.id = :id"
+            + " UNION ALL"
+            + " SELECT child.id, l.generation + 1, CONCAT(l.path, ',', child.id)"
+            + " FROM lineage l JOIN person child ON child.father_id = l.id"
+            + " WHERE l.generation < :depth AND FIND_IN_SET(child.id, l.path) = 0"
+            + " UNION ALL"
+            + " SELECT child.id, l.generation + 1, CONCAT(l.path, ',', child.id)"
+            + " FROM lineage l JOIN person child ON child.mother_id = l.id"
+            + " WHERE l.generation < :depth AND FIND_IN_SET(child.id, l.path) = 0)"
+            + " SELECT p.id AS id, p.full_name AS fullName, p.gender AS gender,"
+            + " p.date_of_birth AS dateOfBirth, p.date_of_death AS dateOfDeath, p.is_alive AS isAlive,"
+            + " p.image_url AS imageUrl, p.father_id AS fatherId, p.mother_id AS motherId,"
+            + " l.generation AS generation, l.path AS path"
+            + " FROM lineage l JOIN person p ON p.id = l.id"
+            + " ORDER BY l.generation, l.path", nativeQuery = true)
+    List<LineageRow> findDescendants(@Param("id") Long id, @Param("depth") int depth);
 }
@@ -0,0 +1,33 @@
+package com.familytree.repository;
+
+import com.familytree.entity.Gender;
+import com.familytree.entity.Person;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+public final class PersonSpecifications {
+
+    private PersonSpecifications() {
+    }
+
+    public static Specification<Person> nameStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(root.get("fullName"), KeysetSpecifications.likePrefix(prefix), '\\');
+    }
+
+    public static Specification<Person> hasGender(Gender gender) {
+        return (root, query, cb) -> cb.equal(root.get("gender"), gender);
+    }
+
+    public static Specification<Person> isAlive(Boolean alive) {
+        return (root, query, cb) -> cb.equal(root.get("isAlive"), alive);
+    }
+
+    public static Specification<Person> bornOnOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dateOfBirth"), date);
+    }
+
+    public static Specification<Person> bornOnOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dateOfBirth"), date);
+    }
+}
@@ -0,0 +1,21 @@
+package com.familytree.repository;
+
+import com.familytree.entity.Relationship;
+import com.familytree.entity.RelationshipType;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class RelationshipSpecifications {
+
+    private RelationshipSpecifications() {
+    }
+
+    public static Specification<Relationship> involves(Long personId) {
+        return (root, query, cb) -> cb.or(
+                cb.equal(root.get("person1").get("id"), personId),
+                cb.equal(root.get("person2").get("id"), personId));
+    }
+
+    public static Specification<Relationship> hasType(RelationshipType type) {
+        return (root, query, cb) -> cb.equal(root.get("relationshipType"), type);
+    }
+}
@@ -0,0 +1,39 @@
+package com.familytree.repository;
+
+import com.familytree.entity.StoredFile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+    Optional<StoredFile> findBySha256(String sha256);
+
+    // Never drops below zero, so a reference released twice cannot hide a live one
+    @Modifying
+    @Query("update StoredFile f set f.refCount = case when f.refCount + :delta < 0 then 0 "
+            + "else f.refCount + :delta end where f.sha256 = :sha256")
+    int adjustRefCount(@Param("sha256") String sha256, @Param("delta") int delta);
+
+    @Transactional
+    @Modifying
+    @Query("update StoredFile f set f.lastUploadedAt = :now where f.sha256 = :sha256")
+    int touch(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from StoredFile f where f.sha256 = :sha256 and f.refCount = 0 "
+            + "and coalesce(f.lastUploadedAt, f.createdAt) < :cutoff")
+    int deleteUnreferenced(@Param("sha256") String sha256, @Param("cutoff") LocalDateTime cutoff);
+
+    @Query("select f.sha256 from StoredFile f where f.refCount = 0 "
+            + "and coalesce(f.lastUploadedAt, f.createdAt) < :cutoff order by f.id")
+    List<String> findUnreferencedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package com.familytree.repository;
+
+import com.familytree.entity.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long>, JpaSpecificationExecutor<Tombstone> {
+
+    @Modifying
+    @Query("delete from Tombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("select max(t.id) from Tombstone t where t.entityName = :entityName")
+    Long findLatestId(@Param("entityName") String entityName);
+}
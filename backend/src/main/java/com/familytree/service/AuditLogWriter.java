@@ -0,0 +1,157 @@
+package com.familytree.service;
+
+import com.familytree.dto.AuditStatsDTO;
+import com.familytree.event.AuditEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind sink for audit entries. Committed events are queued and a single background
+ * thread inserts them in JDBC batches. When the queue stays full past the offer timeout the
+ * publishing thread writes its own entry, so audit rows are slowed down but never dropped.
+ */
+@Component
+public class AuditLogWriter {
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO audit_logs "
+            + "(entity_name, entity_id, action, changed_by, changed_at, details) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.audit.queueCapacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.audit.batchSize:500}")
+    private int batchSize;
+
+    @Value("${app.audit.flushIntervalMs:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.offerTimeoutMs:50}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<AuditEvent> queue;
+    private TransactionTemplate transactionTemplate;
+    private Thread worker;
+    private volatile boolean running;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong writtenByCaller = new AtomicLong();
+    private volatile long lastBatchLagMs;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Listeners run after the caller's commit, where its connection is still bound, so every
+        // write gets a transaction of its own
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        running = true;
+        worker = new Thread(this::drainLoop, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAudit(AuditEvent event) {
+        enqueued.incrementAndGet();
+        try {
+            if (running && queue.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writtenByCaller.incrementAndGet();
+        write(List.of(event));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        List<AuditEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+        logger.info("Audit writer stopped: {} written, {} failed", written.get(), failed.get());
+    }
+
+    public AuditStatsDTO getStatistics() {
+        AuditEvent oldest = queue.peek();
+        long oldestPendingMs = oldest != null ? lagMs(oldest) : 0;
+        return new AuditStatsDTO(queue.size(), queueCapacity, enqueued.get(), written.get(), failed.get(),
+                writtenByCaller.get(), oldestPendingMs, lastBatchLagMs);
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                lastBatchLagMs = lagMs(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditEvent> events) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, events,
+                    events.size(), (ps, event) -> {
+                        ps.setString(1, event.getEntityName());
+                        ps.setLong(2, event.getEntityId());
+                        ps.setString(3, event.getAction());
+                        ps.setObject(4, event.getChangedBy());
+                        ps.setTimestamp(5, Timestamp.valueOf(event.getChangedAt()));
+                        ps.setString(6, event.getDetails());
+                    }));
+            written.addAndGet(events.size());
+        } catch (RuntimeException e) {
+            failed.addAndGet(events.size());
+            logger.error("Failed to write {} audit entries", events.size(), e);
+        }
+    }
+
+    private long lagMs(AuditEvent event) {
+        return Duration.between(event.getChangedAt(), LocalDateTime.now()).toMillis();
+    }
+}
@@ -1,23 +1,86 @@
 package com.familytree.service;
 
+import com.familytree.dto.AuditPageRequest;
+import com.familytree.dto.CursorPage;
 import com.familytree.entity.AuditLog;
+import com.familytree.event.AuditEvent;
 import com.familytree.repository.AuditLogRepository;
+import com.familytree.repository.AuditLogSpecifications;
+import com.familytree.repository.KeysetSpecifications;
+import com.familytree.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class AuditService {
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    /**
+     * Records an audit entry. The row is written by AuditLogWriter once the surrounding
+     * transaction commits, so rolled-back changes are never audited.
+     */
     public void logAction(String entityName, Long entityId, String action, Long changedBy, String details) {
-        AuditLog log = new AuditLog();
-        log.setEntityName(entityName);
-        log.setEntityId(entityId);
-        log.setAction(action);
-        log.setChangedBy(changedBy);
-        log.setDetails(details);
-        auditLogRepository.save(log);
+        eventPublisher.publishEvent(new AuditEvent(entityName, entityId, action, changedBy, details,
+                LocalDateTime.now()));
+    }
+
+    /**
+     * Newest-first audit history, keyset-paginated on (changedAt, id).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLog> getAuditPage(AuditPageRequest request) {
+        int size = Math.max(1, Math.min(request.getSize() != null ? request.getSize() : PersonService.DEFAULT_PAGE_SIZE,
+                PersonService.MAX_PAGE_SIZE));
+
+        Specification<AuditLog> spec = Specification.where(null);
+        if (StringUtils.hasText(request.getEntityName())) {
+            spec = spec.and(AuditLogSpecifications.hasEntityName(request.getEntityName().trim().toUpperCase()));
+        }
+        if (request.getEntityId() != null) {
+            spec = spec.and(AuditLogSpecifications.hasEntityId(request.getEntityId()));
+        }
+        if (StringUtils.hasText(request.getAction())) {
+            spec = spec.and(AuditLogSpecifications.hasAction(request.getAction().trim().toUpperCase()));
+        }
+        if (request.getChangedBy() != null) {
+            spec = spec.and(AuditLogSpecifications.changedBy(request.getChangedBy()));
+        }
+        if (request.getFrom() != null) {
+            spec = spec.and(AuditLogSpecifications.changedOnOrAfter(request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            spec = spec.and(AuditLogSpecifications.changedBefore(request.getTo()));
+        }
+        if (StringUtils.hasText(request.getCursor())) {
+            KeysetCursor cursor = KeysetCursor.decode(request.getCursor());
+            LocalDateTime changedAt = cursor.getValue() != null ? LocalDateTime.parse(cursor.getValue()) : null;
+            spec = spec.and(KeysetSpecifications.after("changedAt", changedAt, cursor.getId(), true));
+        }
+
+        Sort sort = Sort.by(Sort.Direction.DESC, "changedAt").and(Sort.by(Sort.Direction.DESC, "id"));
+        List<AuditLog> rows = auditLogRepository.findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
+
+        boolean hasMore = rows.size() > size;
+        List<AuditLog> items = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        String nextCursor = null;
+        if (hasMore) {
+            AuditLog last = items.get(items.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getId(), last.getChangedAt());
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
     }
 }
@@ -0,0 +1,314 @@
+package com.familytree.service;
+
+import com.familytree.dto.ChangeEventDTO;
+import com.familytree.dto.ChangeFeedStatsDTO;
+import com.familytree.event.ChangeAction;
+import com.familytree.event.PersonChangedEvent;
+import com.familytree.event.RelationshipChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed person and relationship changes to every open client over Server-Sent Events.
+ * Each event is rendered once and queued on every subscriber's bounded buffer; a small shared pool
+ * drains the buffers, so an idle subscriber holds only its async request and an empty queue. Recent
+ * events are kept for replay, letting a reconnecting client resume from its Last-Event-ID. Clients
+ * whose position has fallen out of the history, or that could not keep up, get a "reset" event and
+ * reload their data.
+ */
+@Service
+public class ChangeFeedService {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    public static final String CHANGE_EVENT = "change";
+    public static final String RESET_EVENT = "reset";
+    public static final String READY_EVENT = "ready";
+
+    // Event ids are "<stream>:<sequence>"; the stream part changes on every start, so ids handed
+    // out before a restart are recognised and answered with a reset
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.changeFeed.history:1000}")
+    private int historySize;
+
+    @Value("${app.changeFeed.subscriberBuffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${app.changeFeed.maxSubscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.changeFeed.threads:4}")
+    private int threads;
+
+    @Value("${app.changeFeed.heartbeatSeconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${app.changeFeed.timeoutMs:1800000}")
+    private long timeoutMs;
+
+    private final ArrayDeque<Entry> history = new ArrayDeque<>();
+    private long sequence;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor dispatcher;
+    private ScheduledExecutorService heartbeat;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong resumed = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    private static final Entry HEARTBEAT = new Entry(0, SseEmitter.event().comment("").build());
+
+    private record Entry(long sequence, Set<DataWithMediaType> frame) {
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<Entry> pending = new ArrayBlockingQueue<>(subscriberBuffer);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadSequence = new AtomicInteger();
+        // At most one drain task is queued per subscriber, so the queue is bounded by maxSubscribers
+        dispatcher = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "change-feed-" + threadSequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Opens a feed. With a {@code lastEventId} from an earlier connection the events after it are
+     * replayed first; otherwise, or when that position is gone, the feed starts with a "ready" or
+     * "reset" event carrying the current position. Returns null when the subscriber limit is reached.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        // The token is only checked here; the timeout makes clients reconnect, and so re-authenticate, regularly
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(ex -> close(subscriber));
+
+        // Registering under the history lock means no event is both replayed and delivered live, or missed
+        synchronized (history) {
+            List<Entry> backlog = replayAfter(lastEventId);
+            if (backlog == null || backlog.size() > subscriberBuffer) {
+                if (lastEventId != null) {
+                    resets.incrementAndGet();
+                }
+                subscriber.pending.add(marker(lastEventId != null ? RESET_EVENT : READY_EVENT));
+            } else {
+                if (lastEventId != null) {
+                    resumed.incrementAndGet();
+                }
+                subscriber.pending.addAll(backlog);
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        publish(new ChangeEventDTO("PERSON", event.getPersonId(), event.getAction(), event.getChanges()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRelationshipChanged(RelationshipChangedEvent event) {
+        Map<String, Object> changes = null;
+        if (event.getAction() != ChangeAction.DELETE && event.getPerson1Id() != null) {
+            changes = new LinkedHashMap<>();
+            changes.put("person1Id", event.getPerson1Id());
+            changes.put("person2Id", event.getPerson2Id());
+            changes.put("relationshipType", event.getRelationshipType());
+        }
+        publish(new ChangeEventDTO("RELATIONSHIP", event.getRelationshipId(), event.getAction(), changes));
+    }
+
+    /**
+     * Tells every client to reload, for bulk changes such as imports that publish no per-entity events.
+     */
+    public void reset() {
+        synchronized (history) {
+            append(RESET_EVENT, "{}");
+        }
+    }
+
+    public ChangeFeedStatsDTO getStatistics() {
+        return new ChangeFeedStatsDTO(subscribers.size(), maxSubscribers, published.get(), resumed.get(),
+                resets.get(), overflowed.get());
+    }
+
+    private void publish(ChangeEventDTO change) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException ex) {
+            logger.warn("Could not serialize change event for {} {}", change.getEntity(), change.getId(), ex);
+            return;
+        }
+        synchronized (history) {
+            append(CHANGE_EVENT, json);
+        }
+    }
+
+    private void append(String name, String json) {
+        long next = ++sequence;
+        Entry entry = new Entry(next, SseEmitter.event().id(eventId(next)).name(name).data(json).build());
+        history.addLast(entry);
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+        published.incrementAndGet();
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.pending.offer(entry)) {
+                // Too slow to keep up; it will resume from its last event id or be reset on reconnect
+                overflowed.incrementAndGet();
+                subscriber.closed = true;
+                subscribers.remove(subscriber);
+            }
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Events after the given id, or null when the id is unknown or older than the history.
+     */
+    private List<Entry> replayAfter(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        int separator = lastEventId.indexOf(':');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(streamId)) {
+            return null;
+        }
+        long after;
+        try {
+            after = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        if (after > sequence) {
+            return null;
+        }
+        long oldest = history.isEmpty() ? sequence + 1 : history.peekFirst().sequence();
+        if (after < oldest - 1) {
+            return null;
+        }
+        List<Entry> backlog = new ArrayList<>();
+        for (Entry entry : history) {
+            if (entry.sequence() > after) {
+                backlog.add(entry);
+            }
+        }
+        return backlog;
+    }
+
+    private Entry marker(String name) {
+        return new Entry(sequence, SseEmitter.event().id(eventId(sequence)).name(name).data("{}").build());
+    }
+
+    private String eventId(long value) {
+        return streamId + ":" + value;
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            // A full buffer already has writes pending, which detect a dead connection just as well
+            if (subscriber.pending.isEmpty() && subscriber.pending.offer(HEARTBEAT)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Entry entry;
+            while (!subscriber.closed && (entry = subscriber.pending.poll()) != null) {
+                subscriber.emitter.send(entry.frame());
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away; the container completes the request
+            close(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (subscriber.closed) {
+            subscriber.pending.clear();
+            subscriber.emitter.complete();
+        } else if (!subscriber.pending.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+}
@@ -0,0 +1,43 @@
+package com.familytree.service;
+
+import com.familytree.event.PersonChangedEvent;
+import com.familytree.event.RelationshipChangedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global change counter for person and relationship data, bumped after every committed write. The
+ * list endpoints use it as their ETag, so an unchanged list is answered with 304 before anything is
+ * queried. Readers take the tag before loading, so a write that commits in between only costs the
+ * client one extra full response, never a stale 304.
+ */
+@Service
+public class DataVersionService {
+
+    // Changes on every start, since writes made while the server was down are not counted
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong counter = new AtomicLong();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        counter.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRelationshipChanged(RelationshipChangedEvent event) {
+        counter.incrementAndGet();
+    }
+
+    /**
+     * For bulk writes that publish no per-entity events, such as imports.
+     */
+    public void bump() {
+        counter.incrementAndGet();
+    }
+
+    public String currentEtag() {
+        return "W/\"" + epoch + "-" + counter.get() + "\"";
+    }
+}
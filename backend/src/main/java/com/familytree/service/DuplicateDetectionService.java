@@ -0,0 +1,553 @@
+package com.familytree.service;
+
+import com.familytree.dto.CursorPage;
+import com.familytree.dto.DuplicateCandidateDTO;
+import com.familytree.dto.DuplicateScanJobDTO;
+import com.familytree.entity.Gender;
+import com.familytree.util.KeysetCursor;
+import com.familytree.util.LongIntHashMap;
+import com.familytree.util.NameSearchIndex;
+import com.familytree.util.NameSimilarity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds likely duplicate persons. People are grouped into blocks by normalized surname and birth
+ * year so only plausible pairs are compared; blocks are scored in parallel on a fork-join pool
+ * from name similarity, birth and death dates and shared parents. Scans run one at a time in the
+ * background and keep their ranked candidates in memory.
+ */
+@Service
+public class DuplicateDetectionService {
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateDetectionService.class);
+
+    private static final int MAX_RETAINED_JOBS = 5;
+    private static final int FETCH_SIZE = 1000;
+    private static final int INDEX_BITS = 24;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    // Blocks up to this size are compared pairwise; larger ones only within a sorted-name window
+    private static final int MAX_PAIRWISE_BLOCK = 500;
+    private static final int NEIGHBOUR_WINDOW = 30;
+    private static final int BLOCKS_PER_TASK = 256;
+
+    private static final double MIN_NAME_SIMILARITY = 0.85;
+    private static final double NAME_WEIGHT = 0.45;
+    private static final double BIRTH_WEIGHT = 0.2;
+    private static final double DEATH_WEIGHT = 0.1;
+    private static final double PARENT_WEIGHT = 0.25;
+    private static final double MIN_PARENT_NAME_SIMILARITY = 0.92;
+    private static final double DUPLICATED_PARENT_SCORE = 0.9;
+    // Share of the score lost when none of the date or parent signals are available
+    private static final double MISSING_EVIDENCE_PENALTY = 0.25;
+
+    private static final String PERSON_SQL = "SELECT id, full_name, gender, date_of_birth, date_of_death, "
+            + "father_id, mother_id FROM person";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.duplicates.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.duplicates.minScore:0.8}")
+    private double defaultMinScore;
+
+    @Value("${app.duplicates.maxCandidates:10000}")
+    private int maxCandidates;
+
+    private JdbcTemplate streamingJdbcTemplate;
+    private ForkJoinPool scoringPool;
+    private ExecutorService scanRunner;
+
+    private final AtomicLong jobSequence = new AtomicLong();
+    private final Map<Long, Scan> scans = Collections.synchronizedMap(
+            new LinkedHashMap<Long, Scan>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Scan> eldest) {
+                    return size() > MAX_RETAINED_JOBS;
+                }
+            });
+
+    private static class Scan {
+        final DuplicateScanJobDTO job;
+        volatile List<DuplicateCandidateDTO> candidates = List.of();
+        // Persons merged away since the scan started; dropped together with the scan
+        final Set<Long> mergedAway = ConcurrentHashMap.newKeySet();
+
+        Scan(DuplicateScanJobDTO job) {
+            this.job = job;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(FETCH_SIZE);
+        scoringPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        scanRunner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "duplicate-scan");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanRunner.shutdownNow();
+        scoringPool.shutdownNow();
+    }
+
+    public DuplicateScanJobDTO startScan(Double minScore) {
+        DuplicateScanJobDTO job = new DuplicateScanJobDTO();
+        Scan scan = new Scan(job);
+        synchronized (scans) {
+            if (scans.values().stream().anyMatch(s -> "RUNNING".equals(s.job.getState()))) {
+                throw new RuntimeException("A duplicate scan is already running.");
+            }
+            job.setId(jobSequence.incrementAndGet());
+            job.setState("RUNNING");
+            job.setPhase("LOADING");
+            job.setMinScore(minScore != null ? minScore : defaultMinScore);
+            job.setParallelism(scoringPool.getParallelism());
+            job.setStartedAt(LocalDateTime.now());
+            scans.put(job.getId(), scan);
+        }
+        scanRunner.submit(() -> run(scan));
+        return job;
+    }
+
+    public List<DuplicateScanJobDTO> getJobs() {
+        synchronized (scans) {
+            return scans.values().stream().map(scan -> scan.job).toList();
+        }
+    }
+
+    public DuplicateScanJobDTO getJob(Long id) {
+        return findScan(id).job;
+    }
+
+    /**
+     * Pages through a scan's candidates, best first, skipping pairs already merged.
+     */
+    public CursorPage<DuplicateCandidateDTO> getCandidates(Long jobId, String cursor, Integer size, Double minScore) {
+        Scan scan = findScan(jobId);
+        List<DuplicateCandidateDTO> candidates = scan.candidates;
+        int pageSize = Math.max(1, Math.min(size != null ? size : PersonService.DEFAULT_PAGE_SIZE,
+                PersonService.MAX_PAGE_SIZE));
+        int offset = StringUtils.hasText(cursor) ? KeysetCursor.decode(cursor).getId().intValue() : 0;
+
+        List<DuplicateCandidateDTO> items = new ArrayList<>(pageSize);
+        int next = offset;
+        boolean hasMore = false;
+        for (int i = offset; i < candidates.size(); i++) {
+            DuplicateCandidateDTO candidate = candidates.get(i);
+            if (minScore != null && candidate.getScore() < minScore) {
+                break;
+            }
+            if (scan.mergedAway.contains(candidate.getPerson1Id())
+                    || scan.mergedAway.contains(candidate.getPerson2Id())) {
+                continue;
+            }
+            if (items.size() == pageSize) {
+                hasMore = true;
+                break;
+            }
+            items.add(candidate);
+            next = i + 1;
+        }
+        return new CursorPage<>(items, hasMore ? KeysetCursor.encode((long) next, null) : null, hasMore);
+    }
+
+    /**
+     * Hides candidate pairs involving a person that has been merged into another.
+     */
+    public void forgetPerson(Long personId) {
+        synchronized (scans) {
+            scans.values().forEach(scan -> scan.mergedAway.add(personId));
+        }
+    }
+
+    private Scan findScan(Long id) {
+        Scan scan = scans.get(id);
+        if (scan == null) {
+            throw new RuntimeException("Duplicate scan not found");
+        }
+        return scan;
+    }
+
+    private void run(Scan scan) {
+        DuplicateScanJobDTO job = scan.job;
+        long start = System.currentTimeMillis();
+        try {
+            People people = load();
+            job.setPersonsScanned(people.size);
+
+            job.setPhase("BLOCKING");
+            Blocks blocks = block(people);
+            job.setBlocks(blocks.count());
+
+            job.setPhase("SCORING");
+            LongAdder comparisons = new LongAdder();
+            List<Match> matches = scoringPool.invoke(
+                    new ScoreTask(people, blocks, 0, blocks.count(), job.getMinScore(), comparisons));
+            job.setComparisons(comparisons.sum());
+            job.setCandidatesFound(matches.size());
+
+            matches.sort(Comparator.comparingDouble((Match match) -> match.score).reversed());
+            List<DuplicateCandidateDTO> candidates = new ArrayList<>(Math.min(matches.size(), maxCandidates));
+            for (Match match : matches.subList(0, Math.min(matches.size(), maxCandidates))) {
+                candidates.add(toDto(people, match));
+            }
+            scan.candidates = candidates;
+            job.setPhase("DONE");
+            job.setState("COMPLETED");
+        } catch (RuntimeException e) {
+            logger.error("Duplicate scan {} failed", job.getId(), e);
+            job.setState("FAILED");
+            job.setError(e.getMessage());
+        }
+        job.setElapsedMs(System.currentTimeMillis() - start);
+        logger.info("Duplicate scan {} {}: {} persons, {} blocks, {} comparisons, {} candidates in {} ms",
+                job.getId(), job.getState(), job.getPersonsScanned(), job.getBlocks(), job.getComparisons(),
+                job.getCandidatesFound(), job.getElapsedMs());
+    }
+
+    private People load() {
+        People people = new People();
+        streamingJdbcTemplate.query(PERSON_SQL, rs -> {
+            String gender = rs.getString(3);
+            Date birth = rs.getDate(4);
+            Date death = rs.getDate(5);
+            people.add(rs.getLong(1), rs.getString(2),
+                    gender != null ? (byte) (Gender.valueOf(gender).ordinal() + 1) : 0,
+                    birth != null ? (int) birth.toLocalDate().toEpochDay() : NO_DATE,
+                    death != null ? (int) death.toLocalDate().toEpochDay() : NO_DATE,
+                    rs.getLong(6), rs.getLong(7));
+        });
+        people.buildIndex();
+        return people;
+    }
+
+    /**
+     * Sorts people by a hash of their blocking key (surname plus birth year) packed above their
+     * index, so each block is a contiguous run. A hash collision only merges two blocks.
+     */
+    private Blocks block(People people) {
+        if (people.size >= 1 << INDEX_BITS) {
+            throw new RuntimeException("Too many persons for one duplicate scan: " + people.size);
+        }
+        long[] packed = new long[people.size];
+        int keyed = 0;
+        for (int i = 0; i < people.size; i++) {
+            String norm = people.normalized[i];
+            if (norm.isEmpty()) {
+                continue;
+            }
+            String surname = norm.substring(norm.lastIndexOf(' ') + 1);
+            String year = people.births[i] == NO_DATE ? "?" : String.valueOf(LocalDate.ofEpochDay(people.births[i]).getYear());
+            packed[keyed++] = (hash(surname + '|' + year) >>> INDEX_BITS) << INDEX_BITS | i;
+        }
+        packed = Arrays.copyOf(packed, keyed);
+        Arrays.parallelSort(packed);
+
+        int[] order = new int[keyed];
+        int[] starts = new int[keyed / 2 + 1];
+        int[] ends = new int[keyed / 2 + 1];
+        int blockCount = 0;
+        int runStart = 0;
+        for (int i = 0; i <= keyed; i++) {
+            if (i == keyed || (i > 0 && packed[i] >>> INDEX_BITS != packed[i - 1] >>> INDEX_BITS)) {
+                if (i - runStart > 1) {
+                    starts[blockCount] = runStart;
+                    ends[blockCount++] = i;
+                }
+                runStart = i;
+            }
+            if (i < keyed) {
+                order[i] = (int) (packed[i] & ((1 << INDEX_BITS) - 1));
+            }
+        }
+        return new Blocks(order, starts, ends, blockCount);
+    }
+
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private DuplicateCandidateDTO toDto(People people, Match match) {
+        DuplicateCandidateDTO dto = new DuplicateCandidateDTO();
+        dto.setPerson1Id(people.ids[match.a]);
+        dto.setPerson1Name(people.names[match.a]);
+        dto.setPerson1BirthDate(toDate(people.births[match.a]));
+        dto.setPerson2Id(people.ids[match.b]);
+        dto.setPerson2Name(people.names[match.b]);
+        dto.setPerson2BirthDate(toDate(people.births[match.b]));
+        dto.setScore(round(match.score));
+        dto.setNameScore(round(match.name));
+        dto.setBirthScore(match.birth);
+        dto.setDeathScore(match.death);
+        dto.setParentScore(match.parents);
+        return dto;
+    }
+
+    private static LocalDate toDate(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    /**
+     * Column-wise copy of the person table; parent ids are 0 when unknown.
+     */
+    private static final class People {
+        int size;
+        long[] ids = new long[1024];
+        String[] names = new String[1024];
+        String[] normalized = new String[1024];
+        byte[] genders = new byte[1024];
+        int[] births = new int[1024];
+        int[] deaths = new int[1024];
+        long[] fathers = new long[1024];
+        long[] mothers = new long[1024];
+        LongIntHashMap indexById;
+
+        void add(long id, String name, byte gender, int birth, int death, long father, long mother) {
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                normalized = Arrays.copyOf(normalized, capacity);
+                genders = Arrays.copyOf(genders, capacity);
+                births = Arrays.copyOf(births, capacity);
+                deaths = Arrays.copyOf(deaths, capacity);
+                fathers = Arrays.copyOf(fathers, capacity);
+                mothers = Arrays.copyOf(mothers, capacity);
+            }
+            ids[size] = id;
+            names[size] = name;
+            normalized[size] = NameSearchIndex.normalize(name);
+            genders[size] = gender;
+            births[size] = birth;
+            deaths[size] = death;
+            fathers[size] = father;
+            mothers[size] = mother;
+            size++;
+        }
+
+        void buildIndex() {
+            indexById = new LongIntHashMap(size);
+            for (int i = 0; i < size; i++) {
+                indexById.put(ids[i], i);
+            }
+        }
+    }
+
+    /**
+     * People indices ordered by blocking key; block {@code b} is {@code order[starts[b]]} up to
+     * {@code order[ends[b] - 1]}. Runs of a single person are not blocks.
+     */
+    private record Blocks(int[] order, int[] starts, int[] ends, int count) {
+    }
+
+    /**
+     * Scores a range of blocks, splitting it in halves until each task holds a manageable number
+     * of blocks.
+     */
+    private static final class ScoreTask extends RecursiveTask<List<Match>> {
+        private final People people;
+        private final Blocks blocks;
+        private final int from;
+        private final int to;
+        private final double minScore;
+        private final LongAdder comparisons;
+
+        ScoreTask(People people, Blocks blocks, int from, int to, double minScore, LongAdder comparisons) {
+            this.people = people;
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+            this.minScore = minScore;
+            this.comparisons = comparisons;
+        }
+
+        @Override
+        protected List<Match> compute() {
+            if (to - from > BLOCKS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                ScoreTask left = new ScoreTask(people, blocks, from, middle, minScore, comparisons);
+                left.fork();
+                List<Match> right = new ScoreTask(people, blocks, middle, to, minScore, comparisons).compute();
+                List<Match> result = left.join();
+                result.addAll(right);
+                return result;
+            }
+            List<Match> result = new ArrayList<>();
+            long compared = 0;
+            for (int b = from; b < to; b++) {
+                compared += scoreBlock(blocks.starts()[b], blocks.ends()[b], result);
+            }
+            comparisons.add(compared);
+            return result;
+        }
+
+        private long scoreBlock(int start, int end, List<Match> result) {
+            int[] members = Arrays.copyOfRange(blocks.order(), start, end);
+            int window = members.length;
+            if (members.length > MAX_PAIRWISE_BLOCK) {
+                // Sorted neighbourhood: near-identical names end up next to each other
+                members = Arrays.stream(members).boxed()
+                        .sorted(Comparator.comparing((Integer i) -> people.normalized[i]))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                window = NEIGHBOUR_WINDOW;
+            }
+            long compared = 0;
+            for (int i = 0; i < members.length; i++) {
+                int last = Math.min(members.length, i + 1 + window);
+                for (int j = i + 1; j < last; j++) {
+                    compared++;
+                    Match match = compare(members[i], members[j]);
+                    if (match != null) {
+                        result.add(match);
+                    }
+                }
+            }
+            return compared;
+        }
+
+        private Match compare(int a, int b) {
+            if (people.genders[a] != 0 && people.genders[b] != 0 && people.genders[a] != people.genders[b]) {
+                return null;
+            }
+            long idA = people.ids[a];
+            long idB = people.ids[b];
+            if (people.fathers[a] == idB || people.mothers[a] == idB
+                    || people.fathers[b] == idA || people.mothers[b] == idA) {
+                return null;
+            }
+            double name = NameSimilarity.jaroWinkler(people.normalized[a], people.normalized[b]);
+            if (name < MIN_NAME_SIMILARITY) {
+                return null;
+            }
+
+            double total = NAME_WEIGHT * name;
+            double weight = NAME_WEIGHT;
+            Double birth = dateScore(people.births[a], people.births[b]);
+            if (birth != null) {
+                total += BIRTH_WEIGHT * birth;
+                weight += BIRTH_WEIGHT;
+            }
+            Double death = dateScore(people.deaths[a], people.deaths[b]);
+            if (death != null) {
+                total += DEATH_WEIGHT * death;
+                weight += DEATH_WEIGHT;
+            }
+            Double parents = parentScore(a, b);
+            if (parents != null) {
+                total += PARENT_WEIGHT * parents;
+                weight += PARENT_WEIGHT;
+            }
+            double coverage = (weight - NAME_WEIGHT) / (BIRTH_WEIGHT + DEATH_WEIGHT + PARENT_WEIGHT);
+            double score = total / weight * (1 - MISSING_EVIDENCE_PENALTY * (1 - coverage));
+            if (score < minScore) {
+                return null;
+            }
+            return a < b ? new Match(a, b, score, name, birth, death, parents)
+                    : new Match(b, a, score, name, birth, death, parents);
+        }
+
+        private static Double dateScore(int a, int b) {
+            if (a == NO_DATE || b == NO_DATE) {
+                return null;
+            }
+            int days = Math.abs(a - b);
+            return days == 0 ? 1.0 : days <= 31 ? 0.8 : days <= 366 ? 0.5 : 0.0;
+        }
+
+        private Double parentScore(int a, int b) {
+            int known = 0;
+            double total = 0;
+            if (people.fathers[a] != 0 && people.fathers[b] != 0) {
+                known++;
+                total += parentSimilarity(people.fathers[a], people.fathers[b]);
+            }
+            if (people.mothers[a] != 0 && people.mothers[b] != 0) {
+                known++;
+                total += parentSimilarity(people.mothers[a], people.mothers[b]);
+            }
+            return known == 0 ? null : total / known;
+        }
+
+        /**
+         * Full credit for the same parent; two parents with near-identical names (usually both
+         * sides of a duplicated family, e.g. after importing the same file twice) still count most.
+         */
+        private double parentSimilarity(long parentA, long parentB) {
+            if (parentA == parentB) {
+                return 1.0;
+            }
+            int a = people.indexById.get(parentA, -1);
+            int b = people.indexById.get(parentB, -1);
+            if (a < 0 || b < 0) {
+                return 0.0;
+            }
+            double name = NameSimilarity.jaroWinkler(people.normalized[a], people.normalized[b]);
+            return name >= MIN_PARENT_NAME_SIMILARITY ? DUPLICATED_PARENT_SCORE * name : 0.0;
+        }
+    }
+
+    private static final class Match {
+        final int a;
+        final int b;
+        final double score;
+        final double name;
+        final Double birth;
+        final Double death;
+        final Double parents;
+
+        Match(int a, int b, double score, double name, Double birth, Double death, Double parents) {
+            this.a = a;
+            this.b = b;
+            this.score = score;
+            this.name = name;
+            this.birth = birth;
+            this.death = death;
+            this.parents = parents;
+        }
+    }
+}
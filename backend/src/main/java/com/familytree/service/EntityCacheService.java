@@ -0,0 +1,58 @@
+package com.familytree.service;
+
+import com.familytree.config.CacheConfig;
+import com.familytree.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class EntityCacheService {
+
+    @Autowired
+    private CacheManager entityCacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public List<CacheStatsDTO> getStatistics() {
+        List<CacheStatsDTO> result = new ArrayList<>();
+        for (String region : CacheConfig.ENTITY_REGIONS) {
+            javax.cache.Cache<Object, Object> cache = entityCacheManager.getCache(region);
+            if (cache == null) {
+                continue;
+            }
+            Cache<?, ?> nativeCache = cache.unwrap(Cache.class);
+            CacheStats stats = nativeCache.stats();
+            result.add(new CacheStatsDTO(region, nativeCache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                    stats.hitRate(), stats.evictionCount()));
+        }
+        return result;
+    }
+
+    /**
+     * Drops the cached copies of specific entities after they were changed with plain SQL.
+     */
+    public void evict(Class<?> entityClass, Collection<?> ids) {
+        jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+        for (Object id : ids) {
+            cache.evict(entityClass, id);
+        }
+    }
+
+    /**
+     * Drops every cached entity and query result. Needed after writes that bypass JPA.
+     */
+    public void evictAll() {
+        jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+        cache.evictAll();
+        entityManagerFactory.unwrap(org.hibernate.SessionFactory.class).getCache().evictQueryRegions();
+    }
+}
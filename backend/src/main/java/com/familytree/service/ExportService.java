@@ -0,0 +1,372 @@
+package com.familytree.service;
+
+import com.familytree.util.GedcomDates;
+import com.familytree.util.GedcomWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Full-tree export straight from database cursors. Rows are written as they are fetched, so
+ * memory stays flat regardless of tree size. Each NDJSON relationship and each GEDCOM family is
+ * written after both of the partners it connects. Other references (fatherId/motherId, INDI
+ * FAMC/FAMS, FAM CHIL) may point forward, so readers should resolve them once the stream ends.
+ * GEDCOM families are keyed by their parent pair (F{lower id}_{higher id}), which lets each INDI
+ * reference its families without a lookup table.
+ */
+@Service
+public class ExportService {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String PERSON_COLUMNS = "p.id, p.full_name, p.gender, p.date_of_birth, p.date_of_death, "
+            + "p.is_alive, p.image_url, p.contact_number, p.email, p.father_id, p.mother_id";
+
+    // Family keys of the families a person heads, one subquery per indexed column
+    private static final String PARENT_FAMILY_KEY = "CONCAT(LEAST(COALESCE(c.father_id, 0), COALESCE(c.mother_id, 0)), "
+            + "'_', GREATEST(COALESCE(c.father_id, 0), COALESCE(c.mother_id, 0)))";
+    private static final String PARTNER_FAMILY_KEY = "CONCAT(LEAST(r.person1_id, r.person2_id), '_', "
+            + "GREATEST(r.person1_id, r.person2_id))";
+
+    private static final String GEDCOM_PERSON_SQL = "SELECT " + PERSON_COLUMNS + ", "
+            + "(SELECT GROUP_CONCAT(DISTINCT " + PARENT_FAMILY_KEY + ") FROM person c WHERE c.father_id = p.id) "
+            + "AS father_of, "
+            + "(SELECT GROUP_CONCAT(DISTINCT " + PARENT_FAMILY_KEY + ") FROM person c WHERE c.mother_id = p.id) "
+            + "AS mother_of, "
+            + "(SELECT GROUP_CONCAT(DISTINCT " + PARTNER_FAMILY_KEY + ") FROM relationships r "
+            + "WHERE r.person1_id = p.id) AS partner1_of, "
+            + "(SELECT GROUP_CONCAT(DISTINCT " + PARTNER_FAMILY_KEY + ") FROM relationships r "
+            + "WHERE r.person2_id = p.id) AS partner2_of "
+            + "FROM person p ORDER BY p.id";
+
+    // Relationships (kind 0) and parent links (kind 1) grouped by unordered parent pair, ordered by
+    // the later parent. A relationship's husband is person1 unless only person1 is female.
+    private static final String GEDCOM_FAMILY_SQL = "SELECT LEAST(r.person1_id, r.person2_id) AS k1, "
+            + "GREATEST(r.person1_id, r.person2_id) AS k2, 0 AS kind, r.id, "
+            + "CASE WHEN p1.gender = 'FEMALE' AND p2.gender <> 'FEMALE' THEN r.person2_id ELSE r.person1_id END "
+            + "AS husband_id, "
+            + "CASE WHEN p1.gender = 'FEMALE' AND p2.gender <> 'FEMALE' THEN r.person1_id ELSE r.person2_id END "
+            + "AS wife_id, r.relationship_type, r.start_date, r.end_date "
+            + "FROM relationships r JOIN person p1 ON p1.id = r.person1_id JOIN person p2 ON p2.id = r.person2_id "
+            + "UNION ALL "
+            + "SELECT LEAST(COALESCE(father_id, 0), COALESCE(mother_id, 0)), "
+            + "GREATEST(COALESCE(father_id, 0), COALESCE(mother_id, 0)), 1, id, father_id, mother_id, "
+            + "NULL, NULL, NULL FROM person WHERE father_id IS NOT NULL OR mother_id IS NOT NULL "
+            + "ORDER BY k2, k1, kind, id";
+
+    private static final String NDJSON_PERSON_SQL = "SELECT " + PERSON_COLUMNS + " FROM person p ORDER BY p.id";
+
+    private static final String NDJSON_RELATIONSHIP_SQL = "SELECT GREATEST(person1_id, person2_id) AS k2, id, "
+            + "person1_id, person2_id, relationship_type, start_date, end_date FROM relationships ORDER BY k2, id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.export.maxConcurrent:2}")
+    private int maxConcurrentExports;
+
+    private JdbcTemplate jdbcTemplate;
+    private Semaphore exportPermits;
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private interface GroupEnd {
+        void run() throws IOException;
+    }
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        exportPermits = new Semaphore(maxConcurrentExports);
+    }
+
+    /**
+     * Reserves one of the export slots. Each export holds a connection and a worker thread for its
+     * whole duration, so their number is capped to leave capacity for regular requests.
+     */
+    public boolean tryBeginExport() {
+        return exportPermits.tryAcquire();
+    }
+
+    public void endExport() {
+        exportPermits.release();
+    }
+
+    public void writeGedcom(OutputStream out) throws IOException {
+        GedcomWriter gedcom = new GedcomWriter(out);
+        gedcom.header("FAMILY_TREE");
+        FamilyGroup family = new FamilyGroup();
+        interleave(GEDCOM_PERSON_SQL, rs -> writeIndividual(gedcom, rs), GEDCOM_FAMILY_SQL, rs -> {
+            long k1 = rs.getLong("k1");
+            long k2 = rs.getLong("k2");
+            if (family.k1 != k1 || family.k2 != k2) {
+                family.writeTo(gedcom);
+                family.reset(k1, k2);
+            }
+            family.add(rs);
+        }, () -> {
+            family.writeTo(gedcom);
+            family.reset(-1, -1);
+        });
+        gedcom.trailer();
+    }
+
+    public void writeNdjson(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.setRootValueSeparator(null);
+        interleave(NDJSON_PERSON_SQL, rs -> {
+            json.writeStartObject();
+            json.writeStringField("type", "person");
+            json.writeNumberField("id", rs.getLong("id"));
+            json.writeStringField("fullName", rs.getString("full_name"));
+            json.writeStringField("gender", rs.getString("gender"));
+            writeDateField(json, "dateOfBirth", rs.getObject("date_of_birth", LocalDate.class));
+            writeDateField(json, "dateOfDeath", rs.getObject("date_of_death", LocalDate.class));
+            json.writeObjectField("isAlive", rs.getObject("is_alive", Boolean.class));
+            json.writeStringField("imageUrl", rs.getString("image_url"));
+            json.writeStringField("contactNumber", rs.getString("contact_number"));
+            json.writeStringField("email", rs.getString("email"));
+            json.writeObjectField("fatherId", rs.getObject("father_id", Long.class));
+            json.writeObjectField("motherId", rs.getObject("mother_id", Long.class));
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }, NDJSON_RELATIONSHIP_SQL, rs -> {
+            json.writeStartObject();
+            json.writeStringField("type", "relationship");
+            json.writeNumberField("id", rs.getLong("id"));
+            json.writeNumberField("person1Id", rs.getLong("person1_id"));
+            json.writeNumberField("person2Id", rs.getLong("person2_id"));
+            json.writeStringField("relationshipType", rs.getString("relationship_type"));
+            writeDateField(json, "startDate", rs.getObject("start_date", LocalDate.class));
+            writeDateField(json, "endDate", rs.getObject("end_date", LocalDate.class));
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }, () -> {
+        });
+        json.flush();
+    }
+
+    /**
+     * Walks the person query (ordered by id) and the linked query (ordered by its "k2" column, the
+     * later person it references) side by side on one connection, writing after each person the
+     * linked rows whose k2 it is; {@code groupEnd} runs after each such run of linked rows.
+     */
+    private void interleave(String personSql, RowWriter personWriter, String linkedSql, RowWriter linkedWriter,
+                            GroupEnd groupEnd) throws IOException {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                try (PreparedStatement personStatement = cursor(con, personSql);
+                     PreparedStatement linkedStatement = cursor(con, linkedSql);
+                     ResultSet persons = personStatement.executeQuery();
+                     ResultSet linked = linkedStatement.executeQuery()) {
+                    boolean moreLinked = linked.next();
+                    while (persons.next()) {
+                        personWriter.write(persons);
+                        long personId = persons.getLong("id");
+                        while (moreLinked && linked.getLong("k2") <= personId) {
+                            linkedWriter.write(linked);
+                            moreLinked = linked.next();
+                        }
+                        groupEnd.run();
+                    }
+                    // Only rows whose persons were deleted while the export ran are left
+                    while (moreLinked) {
+                        linkedWriter.write(linked);
+                        moreLinked = linked.next();
+                    }
+                    groupEnd.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static PreparedStatement cursor(Connection con, String sql) throws SQLException {
+        PreparedStatement statement = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(FETCH_SIZE);
+        return statement;
+    }
+
+    private void writeIndividual(GedcomWriter gedcom, ResultSet rs) throws SQLException, IOException {
+        gedcom.line(0, "@I" + rs.getLong("id") + "@", "INDI", null);
+        gedcom.line(1, null, "NAME", gedcomName(rs.getString("full_name")));
+        gedcom.line(1, null, "SEX", gedcomSex(rs.getString("gender")));
+        LocalDate birth = rs.getObject("date_of_birth", LocalDate.class);
+        if (birth != null) {
+            gedcom.line(1, null, "BIRT", null);
+            gedcom.line(2, null, "DATE", GedcomDates.format(birth));
+        }
+        LocalDate death = rs.getObject("date_of_death", LocalDate.class);
+        if (death != null || Boolean.FALSE.equals(rs.getObject("is_alive", Boolean.class))) {
+            gedcom.line(1, null, "DEAT", death == null ? "Y" : null);
+            if (death != null) {
+                gedcom.line(2, null, "DATE", GedcomDates.format(death));
+            }
+        }
+        String imageUrl = rs.getString("image_url");
+        if (imageUrl != null) {
+            gedcom.line(1, null, "OBJE", null);
+            gedcom.line(2, null, "FILE", imageUrl);
+        }
+        if (rs.getString("contact_number") != null) {
+            gedcom.line(1, null, "PHON", rs.getString("contact_number"));
+        }
+        if (rs.getString("email") != null) {
+            gedcom.line(1, null, "EMAIL", rs.getString("email"));
+        }
+        long fatherId = rs.getLong("father_id");
+        long motherId = rs.getLong("mother_id");
+        if (fatherId != 0 || motherId != 0) {
+            gedcom.line(1, null, "FAMC", familyXref(Math.min(fatherId, motherId), Math.max(fatherId, motherId)));
+        }
+        Set<String> spouseFamilies = new LinkedHashSet<>();
+        splitInto(rs.getString("partner1_of"), spouseFamilies);
+        splitInto(rs.getString("partner2_of"), spouseFamilies);
+        splitInto(rs.getString("father_of"), spouseFamilies);
+        splitInto(rs.getString("mother_of"), spouseFamilies);
+        for (String key : spouseFamilies) {
+            gedcom.line(1, null, "FAMS", "@F" + key + "@");
+        }
+    }
+
+    /**
+     * Rows of one family in the sorted family query: its relationship rows first, then its
+     * children.
+     */
+    private static class FamilyGroup {
+        long k1 = -1;
+        long k2 = -1;
+        long husbandId;
+        long wifeId;
+        final List<String[]> events = new ArrayList<>(1);
+        final List<Long> children = new ArrayList<>();
+
+        void reset(long k1, long k2) {
+            this.k1 = k1;
+            this.k2 = k2;
+            husbandId = 0;
+            wifeId = 0;
+            events.clear();
+            children.clear();
+        }
+
+        void add(ResultSet rs) throws SQLException {
+            if (husbandId == 0 && wifeId == 0) {
+                husbandId = rs.getLong("husband_id");
+                wifeId = rs.getLong("wife_id");
+            }
+            if (rs.getInt("kind") == 0) {
+                LocalDate start = rs.getObject("start_date", LocalDate.class);
+                LocalDate end = rs.getObject("end_date", LocalDate.class);
+                events.add(new String[]{rs.getString("relationship_type"),
+                        start != null ? GedcomDates.format(start) : null,
+                        end != null ? GedcomDates.format(end) : null});
+            } else {
+                children.add(rs.getLong("id"));
+            }
+        }
+
+        void writeTo(GedcomWriter gedcom) throws IOException {
+            if (k1 < 0) {
+                return;
+            }
+            gedcom.line(0, familyXref(k1, k2), "FAM", null);
+            if (husbandId != 0) {
+                gedcom.line(1, null, "HUSB", "@I" + husbandId + "@");
+            }
+            if (wifeId != 0) {
+                gedcom.line(1, null, "WIFE", "@I" + wifeId + "@");
+            }
+            for (String[] event : events) {
+                String type = event[0];
+                if ("PARTNER".equals(type)) {
+                    // No standard GEDCOM tag for an unmarried partnership
+                    gedcom.line(1, null, "_PART", event[1] == null ? "Y" : null);
+                } else {
+                    gedcom.line(1, null, "MARR", event[1] == null ? "Y" : null);
+                }
+                if (event[1] != null) {
+                    gedcom.line(2, null, "DATE", event[1]);
+                }
+                if ("DIVORCED".equals(type)) {
+                    gedcom.line(1, null, "DIV", event[2] == null ? "Y" : null);
+                    if (event[2] != null) {
+                        gedcom.line(2, null, "DATE", event[2]);
+                    }
+                }
+            }
+            if (events.isEmpty() && husbandId != 0 && wifeId != 0) {
+                // Both parents are known but were never recorded as a couple
+                gedcom.line(1, null, "_NOREL", "Y");
+            }
+            for (Long child : children) {
+                gedcom.line(1, null, "CHIL", "@I" + child + "@");
+            }
+        }
+    }
+
+    private static String familyXref(long k1, long k2) {
+        return "@F" + k1 + "_" + k2 + "@";
+    }
+
+    private static void splitInto(String keys, Set<String> target) {
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys.split(",")) {
+            target.add(key);
+        }
+    }
+
+    // GEDCOM expects the surname between slashes; the last word is taken as the surname
+    private static String gedcomName(String fullName) {
+        String name = fullName.trim();
+        int lastSpace = name.lastIndexOf(' ');
+        return lastSpace < 0 ? "/" + name + "/" : name.substring(0, lastSpace) + " /" + name.substring(lastSpace + 1) + "/";
+    }
+
+    private static String gedcomSex(String gender) {
+        if ("MALE".equals(gender)) {
+            return "M";
+        }
+        return "FEMALE".equals(gender) ? "F" : "U";
+    }
+
+    private static void writeDateField(JsonGenerator json, String name, LocalDate date) throws IOException {
+        if (date == null) {
+            json.writeNullField(name);
+        } else {
+            json.writeStringField(name, date.toString());
+        }
+    }
+}
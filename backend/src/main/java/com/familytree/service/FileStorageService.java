@@ -1,32 +1,106 @@
 package com.familytree.service;
 
+import com.familytree.entity.StoredFile;
+import com.familytree.event.StoredFileReleasedEvent;
+import com.familytree.repository.StoredFileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class FileStorageService {
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    public static final String MODE_CONTENT_ADDRESSED = "content-addressed";
+    public static final String MODE_FLAT = "flat";
+
+    // ab/cd/<sha256>.<ext>, relative to the uploads directory
+    private static final Pattern STORED_FILE_NAME = Pattern.compile(
+            "([0-9a-f]{2})/([0-9a-f]{2})/(\\1\\2[0-9a-f]{60})(\\.[a-z0-9]+)?");
+    // The same, matched at the end of an image URL
+    private static final Pattern STORED_PATH = Pattern.compile("/uploads/" + STORED_FILE_NAME.pattern() + "$");
+    private static final Duration UPLOAD_GRACE_PERIOD = Duration.ofHours(1);
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+    private static final int SWEEP_BATCH_SIZE = 1000;
 
     private final Path fileStorageLocation;
+    private final Path tempLocation;
+
+    @Value("${app.storage.mode:" + MODE_CONTENT_ADDRESSED + "}")
+    private String mode;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     public FileStorageService() {
         this.fileStorageLocation = Paths.get("uploads").toAbsolutePath().normalize();
+        this.tempLocation = this.fileStorageLocation.resolve("tmp");
 
         try {
             Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.tempLocation);
         } catch (Exception ex) {
             throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
         }
     }
 
+    /**
+     * Stores the upload and returns its path relative to the uploads directory.
+     */
     public String storeFile(MultipartFile file) {
+        if (MODE_FLAT.equals(mode)) {
+            return storeFlat(file);
+        }
+        return storeContentAddressed(file);
+    }
+
+    private String storeFlat(MultipartFile file) {
         // Normalize file name
         String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
         String fileName = UUID.randomUUID().toString() + "_" + originalFileName;
@@ -46,4 +120,204 @@ public class FileStorageService {
             throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
         }
     }
+
+    /**
+     * Hashes the upload while streaming it to a temp file, then keeps a single copy per distinct
+     * content under a two-level fan-out (ab/cd/abcd...). Identical uploads return the existing path.
+     */
+    private String storeContentAddressed(MultipartFile file) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(tempLocation, "upload-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+
+            Optional<StoredFile> existing = storedFileRepository.findBySha256(sha256);
+            // Refreshing the upload time protects the row from deletion; no row updated means it
+            // was deleted since the lookup, and the content is stored again below
+            if (existing.isPresent() && storedFileRepository.touch(sha256, LocalDateTime.now()) > 0) {
+                StoredFile stored = existing.get();
+                Path target = fileStorageLocation.resolve(stored.getPath());
+                if (!Files.exists(target)) {
+                    // Restore content that went missing on disk
+                    moveIntoPlace(temp, target);
+                    temp = null;
+                }
+                return stored.getPath();
+            }
+
+            String path = sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256
+                    + extensionOf(file.getOriginalFilename());
+            moveIntoPlace(temp, fileStorageLocation.resolve(path));
+            temp = null;
+            try {
+                storedFileRepository.save(new StoredFile(null, sha256, path, size, file.getContentType(), 0, null,
+                        LocalDateTime.now()));
+                return path;
+            } catch (DataIntegrityViolationException ex) {
+                // A concurrent upload of the same content won the insert
+                String winner = storedFileRepository.findBySha256(sha256)
+                        .map(StoredFile::getPath)
+                        .orElseThrow(() -> ex);
+                if (!winner.equals(path)) {
+                    Files.deleteIfExists(fileStorageLocation.resolve(path));
+                }
+                return winner;
+            }
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            throw new RuntimeException("Could not store file " + file.getOriginalFilename() + ". Please try again!", ex);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private void moveIntoPlace(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String extensionOf(String fileName) {
+        String extension = StringUtils.getFilenameExtension(fileName);
+        if (extension == null) {
+            return "";
+        }
+        extension = extension.toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            logger.warn("Could not delete temporary upload {}", path, ex);
+        }
+    }
+
+    /**
+     * Moves one person's image reference from {@code oldUrl} to {@code newUrl}. Only images held in
+     * content-addressed storage are counted; anything else is ignored.
+     */
+    @Transactional
+    public void updateReference(String oldUrl, String newUrl) {
+        if (Objects.equals(oldUrl, newUrl)) {
+            return;
+        }
+        String added = storedHash(newUrl);
+        if (added != null) {
+            storedFileRepository.adjustRefCount(added, 1);
+        }
+        String released = storedHash(oldUrl);
+        if (released != null && storedFileRepository.adjustRefCount(released, -1) > 0) {
+            eventPublisher.publishEvent(new StoredFileReleasedEvent(released));
+        }
+    }
+
+    /**
+     * Counts image references written outside {@link #updateReference}, such as bulk inserts; call
+     * it in the transaction that writes them.
+     */
+    @Transactional
+    public void addReferences(Collection<String> urls) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String url : urls) {
+            String hash = storedHash(url);
+            if (hash != null) {
+                counts.merge(hash, 1, Integer::sum);
+            }
+        }
+        counts.forEach(storedFileRepository::adjustRefCount);
+    }
+
+    /**
+     * Deletes content nobody references any more once the releasing transaction has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onStoredFileReleased(StoredFileReleasedEvent event) {
+        deleteIfUnused(event.getSha256());
+    }
+
+    /**
+     * Deletes unreferenced content whose grace period has run out: files released while still in
+     * their grace period, and uploads no person was ever saved with.
+     */
+    @Scheduled(initialDelayString = "${app.storage.sweepIntervalMs:3600000}",
+            fixedDelayString = "${app.storage.sweepIntervalMs:3600000}")
+    public void sweepUnreferenced() {
+        List<String> candidates = storedFileRepository.findUnreferencedBefore(
+                LocalDateTime.now().minus(UPLOAD_GRACE_PERIOD), PageRequest.of(0, SWEEP_BATCH_SIZE));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int deleted = 0;
+        for (String sha256 : candidates) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> deleteIfUnused(sha256)))) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} unreferenced uploads", deleted);
+        }
+    }
+
+    /**
+     * Deletes the row only while it is still unreferenced and out of its grace period; an upload
+     * that reuses the content in between refreshes the row first and keeps it. The file is unlinked
+     * while the deleted row is still locked, so such an upload waits and then writes it back.
+     */
+    private boolean deleteIfUnused(String sha256) {
+        StoredFile file = storedFileRepository.findBySha256(sha256).orElse(null);
+        if (file == null || file.getRefCount() > 0) {
+            return false;
+        }
+        // The upload may have just been handed to a client that has not saved the person yet;
+        // the sweep comes back for it later
+        if (storedFileRepository.deleteUnreferenced(sha256, LocalDateTime.now().minus(UPLOAD_GRACE_PERIOD)) == 0) {
+            return false;
+        }
+        try {
+            Files.deleteIfExists(fileStorageLocation.resolve(file.getPath()));
+        } catch (IOException ex) {
+            logger.warn("Could not delete unreferenced upload {}", file.getPath(), ex);
+        }
+        thumbnailService.deleteThumbnails(file.getPath());
+        return true;
+    }
+
+    /**
+     * Resolves a file under the uploads directory, or returns null when there is no such upload.
+     * Partial uploads in the temp directory are never exposed.
+     */
+    public Path resolveUpload(String fileName) {
+        Path file = fileStorageLocation.resolve(fileName).normalize();
+        if (!file.startsWith(fileStorageLocation) || file.startsWith(tempLocation) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    /**
+     * The SHA-256 a content-addressed upload is named after, or null for any other file name.
+     */
+    public static String contentHashOf(String fileName) {
+        Matcher matcher = STORED_FILE_NAME.matcher(fileName);
+        return matcher.matches() ? matcher.group(3) : null;
+    }
+
+    private static String storedHash(String url) {
+        if (url == null) {
+            return null;
+        }
+        Matcher matcher = STORED_PATH.matcher(url);
+        return matcher.find() ? matcher.group(3) : null;
+    }
 }
@@ -0,0 +1,406 @@
+package com.familytree.service;
+
+import com.familytree.dto.ImportJobDTO;
+import com.familytree.entity.Gender;
+import com.familytree.entity.Person;
+import com.familytree.entity.Relationship;
+import com.familytree.entity.RelationshipType;
+import com.familytree.repository.BulkInsertRepository;
+import com.familytree.util.GedcomDates;
+import com.familytree.util.GedcomReader;
+import com.familytree.util.GedcomRecord;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk GEDCOM import. Individuals are inserted in JDBC batches while the file streams in; family
+ * records are kept as cross-references and resolved into parent links and relationships in a
+ * second pass. The upload is spooled to a temporary file and imported in the background, one
+ * import at a time, so its job can be polled while it runs. The whole import is one transaction.
+ */
+@Service
+public class GedcomImportService {
+    private static final Logger logger = LoggerFactory.getLogger(GedcomImportService.class);
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_RETAINED_JOBS = 20;
+
+    @Autowired
+    private BulkInsertRepository bulkInsertRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private GenealogyGraphService graphService;
+
+    @Autowired
+    private TreeLayoutService treeLayoutService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private PersonSearchService personSearchService;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    private ExecutorService importRunner;
+
+    private final AtomicLong jobSequence = new AtomicLong();
+    private final Map<Long, ImportJobDTO> jobs = Collections.synchronizedMap(
+            new LinkedHashMap<Long, ImportJobDTO>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, ImportJobDTO> eldest) {
+                    return size() > MAX_RETAINED_JOBS;
+                }
+            });
+
+    private static class Family {
+        String husband;
+        String wife;
+        List<String> children = new ArrayList<>(4);
+        RelationshipType type = RelationshipType.MARRIED; // null when the parents are not a couple
+        LocalDate startDate;
+        LocalDate endDate;
+    }
+
+    @PostConstruct
+    public void init() {
+        importRunner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gedcom-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importRunner.shutdownNow();
+    }
+
+    /**
+     * Copies the upload to a temporary file and queues its import; the returned job reports the
+     * progress from then on.
+     */
+    public ImportJobDTO startImport(InputStream in) throws IOException {
+        Path file = Files.createTempFile("gedcom-import-", ".ged");
+        try {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ImportJobDTO job = new ImportJobDTO();
+        job.setId(jobSequence.incrementAndGet());
+        job.setFormat("GEDCOM");
+        job.setState("RUNNING");
+        job.setPhase("QUEUED");
+        job.setStartedAt(LocalDateTime.now());
+        jobs.put(job.getId(), job);
+
+        Long userId = getCurrentUserId();
+        try {
+            importRunner.submit(() -> run(job, file, userId));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return job;
+    }
+
+    private void run(ImportJobDTO job, Path file, Long userId) {
+        long start = System.currentTimeMillis();
+        try (InputStream in = Files.newInputStream(file)) {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    load(new GedcomReader(in), job, userId, start);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            job.setPhase("INDEXING");
+            entityCacheService.evictAll();
+            graphService.reload();
+            personSearchService.reload();
+            treeLayoutService.clear();
+            changeFeedService.reset();
+            dataVersionService.bump();
+            job.setPhase("DONE");
+            job.setState("COMPLETED");
+            auditService.logAction("IMPORT", job.getId(), "IMPORT", userId,
+                    "Imported " + job.getPersonsImported() + " persons and " + job.getRelationshipsImported()
+                            + " relationships from GEDCOM");
+        } catch (IOException | RuntimeException e) {
+            logger.error("GEDCOM import {} failed", job.getId(), e);
+            job.setState("FAILED");
+            job.setError(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete GEDCOM upload {}", file, e);
+            }
+        }
+        updateThroughput(job, start);
+        logger.info("GEDCOM import {} {}: {} persons, {} relationships in {} ms", job.getId(), job.getState(),
+                job.getPersonsImported(), job.getRelationshipsImported(), job.getElapsedMs());
+    }
+
+    public List<ImportJobDTO> getJobs() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    public ImportJobDTO getJob(Long id) {
+        ImportJobDTO job = jobs.get(id);
+        if (job == null) {
+            throw new RuntimeException("Import job not found");
+        }
+        return job;
+    }
+
+    private void load(GedcomReader reader, ImportJobDTO job, Long userId, long start) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Long> personIds = new HashMap<>();
+        List<Family> families = new ArrayList<>();
+        List<Person> batch = new ArrayList<>(BATCH_SIZE);
+        List<String> batchXrefs = new ArrayList<>(BATCH_SIZE);
+
+        job.setPhase("INDIVIDUALS");
+        GedcomRecord record;
+        while ((record = reader.next()) != null) {
+            if ("INDI".equals(record.getTag()) && record.getXref() != null) {
+                batch.add(toPerson(record, userId, now));
+                batchXrefs.add(record.getXref());
+                if (batch.size() == BATCH_SIZE) {
+                    flushPersons(batch, batchXrefs, personIds, job, start);
+                }
+            } else if ("FAM".equals(record.getTag())) {
+                families.add(toFamily(record));
+            }
+            job.setLinesRead(reader.getLineNumber());
+        }
+        flushPersons(batch, batchXrefs, personIds, job, start);
+        job.setSkippedLines(reader.getSkippedLines());
+
+        job.setPhase("FAMILIES");
+        // A child can appear in several families (e.g. birth and adoptive); the first family that
+        // names a father or mother provides it, and a missing parent never clears a known one
+        Map<Long, Person> children = new LinkedHashMap<>();
+        List<Relationship> relationships = new ArrayList<>(BATCH_SIZE);
+        for (Family family : families) {
+            Long fatherId = resolve(family.husband, personIds, job);
+            Long motherId = resolve(family.wife, personIds, job);
+            if (fatherId != null || motherId != null) {
+                for (String childXref : family.children) {
+                    Long childId = resolve(childXref, personIds, job);
+                    if (childId == null) {
+                        continue;
+                    }
+                    Person child = children.computeIfAbsent(childId, GedcomImportService::reference);
+                    if (fatherId != null && child.getFather() == null) {
+                        child.setFather(reference(fatherId));
+                    }
+                    if (motherId != null && child.getMother() == null) {
+                        child.setMother(reference(motherId));
+                    }
+                }
+            }
+            if (fatherId != null && motherId != null && family.type != null) {
+                relationships.add(toRelationship(family, fatherId, motherId, userId, now));
+                if (relationships.size() == BATCH_SIZE) {
+                    bulkInsertRepository.insertRelationships(relationships);
+                    job.setRelationshipsImported(job.getRelationshipsImported() + relationships.size());
+                    relationships.clear();
+                }
+            }
+        }
+        bulkInsertRepository.insertRelationships(relationships);
+        job.setRelationshipsImported(job.getRelationshipsImported() + relationships.size());
+
+        List<Person> parentUpdates = new ArrayList<>(BATCH_SIZE);
+        for (Person child : children.values()) {
+            parentUpdates.add(child);
+            if (parentUpdates.size() == BATCH_SIZE) {
+                bulkInsertRepository.updateParents(parentUpdates);
+                job.setParentLinks(job.getParentLinks() + parentUpdates.size());
+                parentUpdates.clear();
+            }
+        }
+        bulkInsertRepository.updateParents(parentUpdates);
+        job.setParentLinks(job.getParentLinks() + parentUpdates.size());
+
+        // Every row is stamped with the start time, which delta sync cursors may pass long before
+        // this transaction commits
+        syncService.requireFullResync();
+    }
+
+    private void flushPersons(List<Person> batch, List<String> batchXrefs, Map<String, Long> personIds,
+                              ImportJobDTO job, long start) {
+        bulkInsertRepository.insertPersons(batch);
+        List<String> imageUrls = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            personIds.put(batchXrefs.get(i), batch.get(i).getId());
+            if (batch.get(i).getImageUrl() != null) {
+                imageUrls.add(batch.get(i).getImageUrl());
+            }
+        }
+        fileStorageService.addReferences(imageUrls);
+        job.setPersonsImported(job.getPersonsImported() + batch.size());
+        updateThroughput(job, start);
+        batch.clear();
+        batchXrefs.clear();
+    }
+
+    private Person toPerson(GedcomRecord record, Long userId, LocalDateTime now) {
+        Person person = new Person();
+        person.setFullName(fullName(record.valueAt("NAME")));
+        person.setGender(gender(record.valueAt("SEX")));
+        person.setDateOfBirth(GedcomDates.parse(record.valueAt("BIRT", "DATE")));
+        GedcomRecord death = record.child("DEAT");
+        person.setIsAlive(death == null);
+        person.setDateOfDeath(death != null ? GedcomDates.parse(death.valueAt("DATE")) : null);
+        person.setImageUrl(record.valueAt("OBJE", "FILE"));
+        person.setContactNumber(record.valueAt("PHON"));
+        person.setEmail(record.valueAt("EMAIL"));
+        person.setCreatedBy(userId);
+        person.setUpdatedBy(userId);
+        person.setCreatedAt(now);
+        person.setUpdatedAt(now);
+        return person;
+    }
+
+    private Family toFamily(GedcomRecord record) {
+        Family family = new Family();
+        family.husband = record.valueAt("HUSB");
+        family.wife = record.valueAt("WIFE");
+        for (GedcomRecord child : record.children("CHIL")) {
+            family.children.add(child.getValue());
+        }
+        family.startDate = GedcomDates.parse(record.valueAt("MARR", "DATE"));
+        GedcomRecord divorce = record.child("DIV");
+        GedcomRecord partnership = record.child("_PART");
+        if (divorce != null) {
+            family.type = RelationshipType.DIVORCED;
+            family.endDate = GedcomDates.parse(divorce.valueAt("DATE"));
+        } else if (partnership != null) {
+            family.type = RelationshipType.PARTNER;
+            family.startDate = GedcomDates.parse(partnership.valueAt("DATE"));
+        } else if (record.child("_NOREL") != null) {
+            family.type = null; // Parents only, not a couple
+        }
+        return family;
+    }
+
+    private Relationship toRelationship(Family family, Long husbandId, Long wifeId, Long userId, LocalDateTime now) {
+        Relationship relationship = new Relationship();
+        relationship.setPerson1(reference(husbandId));
+        relationship.setPerson2(reference(wifeId));
+        relationship.setRelationshipType(family.type);
+        relationship.setStartDate(family.startDate);
+        relationship.setEndDate(family.endDate);
+        relationship.setCreatedBy(userId);
+        relationship.setUpdatedBy(userId);
+        relationship.setCreatedAt(now);
+        relationship.setUpdatedAt(now);
+        return relationship;
+    }
+
+    private Long resolve(String xref, Map<String, Long> personIds, ImportJobDTO job) {
+        if (xref == null) {
+            return null;
+        }
+        Long id = personIds.get(xref.trim());
+        if (id == null) {
+            job.setUnresolvedReferences(job.getUnresolvedReferences() + 1);
+        }
+        return id;
+    }
+
+    // GEDCOM marks the surname with slashes: "John /Smith/"
+    private String fullName(String name) {
+        if (name == null) {
+            return "Unknown";
+        }
+        String cleaned = name.replace("/", " ").trim().replaceAll("\\s+", " ");
+        return cleaned.isEmpty() ? "Unknown" : cleaned;
+    }
+
+    private Gender gender(String sex) {
+        if (sex == null) {
+            return Gender.OTHER;
+        }
+        switch (sex.trim().toUpperCase()) {
+            case "M":
+                return Gender.MALE;
+            case "F":
+                return Gender.FEMALE;
+            default:
+                return Gender.OTHER;
+        }
+    }
+
+    private static Person reference(Long id) {
+        Person person = new Person();
+        person.setId(id);
+        return person;
+    }
+
+    private void updateThroughput(ImportJobDTO job, long start) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        job.setElapsedMs(elapsed);
+        job.setPersonsPerSecond(job.getPersonsImported() * 1000.0 / elapsed);
+    }
+
+    private Long getCurrentUserId() {
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof UserDetailsImpl) {
+            return ((UserDetailsImpl) principal).getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,452 @@
+package com.familytree.service;
+
+import com.familytree.entity.RelationshipType;
+import com.familytree.event.ChangeAction;
+import com.familytree.event.PersonChangedEvent;
+import com.familytree.event.RelationshipChangedEvent;
+import com.familytree.util.LongIntHashMap;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory index of the person graph. Parent links are kept as dense int slots, spouse links as
+ * a flat edge list, and child/spouse adjacency as CSR arrays (offsets + targets) rebuilt lazily
+ * after writes. Nothing here holds boxed ids or entities, so traversals never touch the database.
+ * Deleting a person only unindexes its slot; the links pointing at it are dropped, and the slot
+ * recycled, by the next adjacency rebuild.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class GenealogyGraphService {
+    private static final Logger logger = LoggerFactory.getLogger(GenealogyGraphService.class);
+
+    public static final int NONE = -1;
+
+    private static final RelationshipType[] RELATIONSHIP_TYPES = RelationshipType.values();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final View view = new View();
+
+    // Nodes: slot -> person id (0 = free slot) and parent slots
+    private long[] personIds = new long[0];
+    private int[] fathers = new int[0];
+    private int[] mothers = new int[0];
+    private int nodeCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int[] deletedSlots = new int[16];
+    private int deletedCount;
+    private LongIntHashMap nodeIndex = new LongIntHashMap(16);
+
+    // Spouse edges: edge slot -> relationship id, endpoint slots and type ordinal
+    private long[] edgeIds = new long[0];
+    private int[] edgeFrom = new int[0];
+    private int[] edgeTo = new int[0];
+    private byte[] edgeTypes = new byte[0];
+    private int edgeCount;
+    private LongIntHashMap edgeIndex = new LongIntHashMap(16);
+
+    // CSR adjacency derived from the node and edge arrays
+    private int[] childOffsets = new int[1];
+    private int[] childTargets = new int[0];
+    private int[] spouseOffsets = new int[1];
+    private int[] spouseTargets = new int[0];
+    private int[] spouseEdges = new int[0];
+    private boolean adjacencyDirty;
+
+    private volatile long version;
+
+    @PostConstruct
+    public void reload() {
+        long start = System.currentTimeMillis();
+
+        LongColumns persons = new LongColumns(3);
+        jdbcTemplate.query("SELECT id, father_id, mother_id FROM person", rs -> {
+            persons.add(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+        });
+        LongColumns relationships = new LongColumns(4);
+        jdbcTemplate.query("SELECT id, person1_id, person2_id, relationship_type FROM relationships", rs -> {
+            relationships.add(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                    RelationshipType.valueOf(rs.getString(4)).ordinal());
+        });
+
+        int n = persons.size;
+        LongIntHashMap newNodeIndex = new LongIntHashMap(n);
+        long[] newPersonIds = Arrays.copyOf(persons.columns[0], Math.max(n, 16));
+        for (int i = 0; i < n; i++) {
+            newNodeIndex.put(newPersonIds[i], i);
+        }
+        int[] newFathers = new int[newPersonIds.length];
+        int[] newMothers = new int[newPersonIds.length];
+        for (int i = 0; i < n; i++) {
+            newFathers[i] = newNodeIndex.get(persons.columns[1][i], NONE);
+            newMothers[i] = newNodeIndex.get(persons.columns[2][i], NONE);
+        }
+
+        int e = relationships.size;
+        LongIntHashMap newEdgeIndex = new LongIntHashMap(e);
+        long[] newEdgeIds = Arrays.copyOf(relationships.columns[0], Math.max(e, 16));
+        int[] newEdgeFrom = new int[newEdgeIds.length];
+        int[] newEdgeTo = new int[newEdgeIds.length];
+        byte[] newEdgeTypes = new byte[newEdgeIds.length];
+        int kept = 0;
+        for (int i = 0; i < e; i++) {
+            int from = newNodeIndex.get(relationships.columns[1][i], NONE);
+            int to = newNodeIndex.get(relationships.columns[2][i], NONE);
+            if (from == NONE || to == NONE) {
+                continue;
+            }
+            newEdgeIds[kept] = relationships.columns[0][i];
+            newEdgeFrom[kept] = from;
+            newEdgeTo[kept] = to;
+            newEdgeTypes[kept] = (byte) relationships.columns[3][i];
+            newEdgeIndex.put(newEdgeIds[kept], kept);
+            kept++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            personIds = newPersonIds;
+            fathers = newFathers;
+            mothers = newMothers;
+            nodeCount = n;
+            freeCount = 0;
+            deletedCount = 0;
+            nodeIndex = newNodeIndex;
+            edgeIds = newEdgeIds;
+            edgeFrom = newEdgeFrom;
+            edgeTo = newEdgeTo;
+            edgeTypes = newEdgeTypes;
+            edgeCount = kept;
+            edgeIndex = newEdgeIndex;
+            rebuildAdjacency();
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Loaded genealogy graph: {} persons, {} spouse edges in {} ms",
+                n, kept, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getAction() == ChangeAction.DELETE) {
+                removeNode(event.getPersonId());
+            } else {
+                int node = ensureNode(event.getPersonId());
+                int father = event.getFatherId() != null ? ensureNode(event.getFatherId()) : NONE;
+                int mother = event.getMotherId() != null ? ensureNode(event.getMotherId()) : NONE;
+                fathers[node] = father;
+                mothers[node] = mother;
+            }
+            adjacencyDirty = true;
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRelationshipChanged(RelationshipChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getAction() == ChangeAction.DELETE) {
+                removeEdge(event.getRelationshipId());
+            } else {
+                putEdge(event.getRelationshipId(), ensureNode(event.getPerson1Id()),
+                        ensureNode(event.getPerson2Id()), event.getRelationshipType());
+            }
+            adjacencyDirty = true;
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a traversal against a consistent view of the graph. The view must not escape the
+     * callback.
+     */
+    public <T> T read(Function<View, T> reader) {
+        lock.readLock().lock();
+        if (adjacencyDirty) {
+            lock.readLock().unlock();
+            lock.writeLock().lock();
+            try {
+                if (adjacencyDirty) {
+                    rebuildAdjacency();
+                }
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        try {
+            return reader.apply(view);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(Long personId) {
+        return personId != null && read(graph -> graph.nodeOf(personId) != NONE);
+    }
+
+    public int personCount() {
+        return read(graph -> nodeIndex.size());
+    }
+
+    /**
+     * Monotonic counter bumped on every change to the graph, for callers that cache derived data.
+     */
+    public long version() {
+        return version;
+    }
+
+    private int ensureNode(long personId) {
+        int node = nodeIndex.get(personId, NONE);
+        if (node != NONE) {
+            return node;
+        }
+        if (freeCount > 0) {
+            node = freeSlots[--freeCount];
+        } else {
+            if (nodeCount == personIds.length) {
+                int capacity = Math.max(16, personIds.length + (personIds.length >> 1));
+                personIds = Arrays.copyOf(personIds, capacity);
+                fathers = Arrays.copyOf(fathers, capacity);
+                mothers = Arrays.copyOf(mothers, capacity);
+            }
+            node = nodeCount++;
+        }
+        personIds[node] = personId;
+        fathers[node] = NONE;
+        mothers[node] = NONE;
+        nodeIndex.put(personId, node);
+        return node;
+    }
+
+    private void removeNode(long personId) {
+        int node = nodeIndex.get(personId, NONE);
+        if (node == NONE) {
+            return;
+        }
+        personIds[node] = 0;
+        fathers[node] = NONE;
+        mothers[node] = NONE;
+        nodeIndex.remove(personId);
+        if (deletedCount == deletedSlots.length) {
+            deletedSlots = Arrays.copyOf(deletedSlots, deletedSlots.length << 1);
+        }
+        deletedSlots[deletedCount++] = node;
+    }
+
+    /**
+     * Drops parent links and spouse edges that still point at deleted slots, then makes those
+     * slots reusable. Runs as part of the adjacency rebuild, which walks the same arrays anyway.
+     */
+    private void releaseDeletedSlots() {
+        for (int i = 0; i < nodeCount; i++) {
+            if (fathers[i] != NONE && personIds[fathers[i]] == 0) {
+                fathers[i] = NONE;
+            }
+            if (mothers[i] != NONE && personIds[mothers[i]] == 0) {
+                mothers[i] = NONE;
+            }
+        }
+        for (int e = edgeCount - 1; e >= 0; e--) {
+            if (personIds[edgeFrom[e]] == 0 || personIds[edgeTo[e]] == 0) {
+                removeEdge(edgeIds[e]);
+            }
+        }
+        if (freeCount + deletedCount > freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(freeSlots.length << 1, freeCount + deletedCount));
+        }
+        System.arraycopy(deletedSlots, 0, freeSlots, freeCount, deletedCount);
+        freeCount += deletedCount;
+        deletedCount = 0;
+    }
+
+    private void putEdge(long relationshipId, int from, int to, RelationshipType type) {
+        int edge = edgeIndex.get(relationshipId, NONE);
+        if (edge == NONE) {
+            if (edgeCount == edgeIds.length) {
+                int capacity = Math.max(16, edgeIds.length + (edgeIds.length >> 1));
+                edgeIds = Arrays.copyOf(edgeIds, capacity);
+                edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+                edgeTo = Arrays.copyOf(edgeTo, capacity);
+                edgeTypes = Arrays.copyOf(edgeTypes, capacity);
+            }
+            edge = edgeCount++;
+            edgeIds[edge] = relationshipId;
+            edgeIndex.put(relationshipId, edge);
+        }
+        edgeFrom[edge] = from;
+        edgeTo[edge] = to;
+        edgeTypes[edge] = (byte) type.ordinal();
+    }
+
+    private void removeEdge(long relationshipId) {
+        int edge = edgeIndex.get(relationshipId, NONE);
+        if (edge == NONE) {
+            return;
+        }
+        int last = --edgeCount;
+        if (edge != last) {
+            edgeIds[edge] = edgeIds[last];
+            edgeFrom[edge] = edgeFrom[last];
+            edgeTo[edge] = edgeTo[last];
+            edgeTypes[edge] = edgeTypes[last];
+            edgeIndex.put(edgeIds[edge], edge);
+        }
+        edgeIndex.remove(relationshipId);
+    }
+
+    private void rebuildAdjacency() {
+        if (deletedCount > 0) {
+            releaseDeletedSlots();
+        }
+        int n = nodeCount;
+
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            if (fathers[i] != NONE) {
+                offsets[fathers[i] + 1]++;
+            }
+            if (mothers[i] != NONE && mothers[i] != fathers[i]) {
+                offsets[mothers[i] + 1]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] targets = new int[offsets[n]];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < n; i++) {
+            if (fathers[i] != NONE) {
+                targets[cursor[fathers[i]]++] = i;
+            }
+            if (mothers[i] != NONE && mothers[i] != fathers[i]) {
+                targets[cursor[mothers[i]]++] = i;
+            }
+        }
+        childOffsets = offsets;
+        childTargets = targets;
+
+        offsets = new int[n + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[edgeFrom[e] + 1]++;
+            offsets[edgeTo[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        targets = new int[offsets[n]];
+        int[] edges = new int[offsets[n]];
+        cursor = Arrays.copyOf(offsets, n);
+        for (int e = 0; e < edgeCount; e++) {
+            int from = edgeFrom[e];
+            int to = edgeTo[e];
+            edges[cursor[from]] = e;
+            targets[cursor[from]++] = to;
+            edges[cursor[to]] = e;
+            targets[cursor[to]++] = from;
+        }
+        spouseOffsets = offsets;
+        spouseTargets = targets;
+        spouseEdges = edges;
+
+        adjacencyDirty = false;
+    }
+
+    /**
+     * Read-only accessors over dense node slots. Children and spouses of a node are found at
+     * positions {@code [start, end)} of the corresponding CSR arrays.
+     */
+    public class View {
+        public int nodeOf(long personId) {
+            return nodeIndex.get(personId, NONE);
+        }
+
+        public long personId(int node) {
+            return personIds[node];
+        }
+
+        public int father(int node) {
+            return fathers[node];
+        }
+
+        public int mother(int node) {
+            return mothers[node];
+        }
+
+        public int childrenStart(int node) {
+            return childOffsets[node];
+        }
+
+        public int childrenEnd(int node) {
+            return childOffsets[node + 1];
+        }
+
+        public int child(int position) {
+            return childTargets[position];
+        }
+
+        public int spousesStart(int node) {
+            return spouseOffsets[node];
+        }
+
+        public int spousesEnd(int node) {
+            return spouseOffsets[node + 1];
+        }
+
+        public int spouse(int position) {
+            return spouseTargets[position];
+        }
+
+        public long relationshipId(int position) {
+            return edgeIds[spouseEdges[position]];
+        }
+
+        public RelationshipType relationshipType(int position) {
+            return RELATIONSHIP_TYPES[edgeTypes[spouseEdges[position]]];
+        }
+    }
+
+    private static class LongColumns {
+        private final long[][] columns;
+        private int size;
+
+        LongColumns(int width) {
+            columns = new long[width][1024];
+        }
+
+        void add(long... row) {
+            if (size == columns[0].length) {
+                for (int c = 0; c < columns.length; c++) {
+                    columns[c] = Arrays.copyOf(columns[c], size << 1);
+                }
+            }
+            for (int c = 0; c < columns.length; c++) {
+                columns[c][size] = row[c];
+            }
+            size++;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.familytree.service;
+
+import com.familytree.dto.KinshipDTO;
+import com.familytree.dto.KinshipStepDTO;
+import com.familytree.entity.Gender;
+import com.familytree.entity.Person;
+import com.familytree.entity.RelationshipType;
+import com.familytree.repository.PersonRepository;
+import com.familytree.util.LongIntHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.familytree.service.GenealogyGraphService.NONE;
+
+/**
+ * Answers "how is B related to A" on the in-memory genealogy graph: blood relations via the
+ * lowest common ancestor of both ancestries, and in-law relations across one MARRIED/PARTNER
+ * edge on either side. Results are not cached: a lookup is a few bounded ancestor walks over the
+ * graph arrays, and almost any write could change which ancestries an earlier answer depended on.
+ */
+@Service
+public class KinshipService {
+
+    private static final int MAX_GENERATIONS = 64;
+
+    private static final String SELF = "SELF";
+    private static final String PARENT = "PARENT";
+    private static final String CHILD = "CHILD";
+    private static final String SPOUSE = "SPOUSE";
+
+    @Autowired
+    private GenealogyGraphService genealogyGraphService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Transactional(readOnly = true)
+    public KinshipDTO describe(Long personId, Long relativeId) {
+        KinshipPath found = genealogyGraphService.read(graph -> search(graph, personId, relativeId));
+        if (found == null) {
+            throw new RuntimeException("Person not found");
+        }
+        return toDto(personId, relativeId, found);
+    }
+
+    private KinshipPath search(GenealogyGraphService.View graph, long personId, long relativeId) {
+        int a = graph.nodeOf(personId);
+        int b = graph.nodeOf(relativeId);
+        if (a == NONE || b == NONE) {
+            return null;
+        }
+
+        Ancestry ancestryA = new Ancestry(graph, a);
+        KinshipPath blood = blood(graph, ancestryA, b);
+        if (blood != null) {
+            return blood;
+        }
+
+        for (int k = graph.spousesStart(a); k < graph.spousesEnd(a); k++) {
+            if (graph.spouse(k) == b) {
+                KinshipPath spouse = new KinshipPath(Kind.SPOUSE);
+                spouse.add(graph, a, SELF);
+                spouse.add(graph, b, SPOUSE);
+                spouse.marriageType = graph.relationshipType(k);
+                return spouse;
+            }
+        }
+
+        // One marriage hop: the relative is the spouse of a blood relative, or a blood relative of a spouse
+        KinshipPath best = null;
+        for (int k = graph.spousesStart(b); k < graph.spousesEnd(b); k++) {
+            if (!isUnion(graph.relationshipType(k))) {
+                continue;
+            }
+            KinshipPath path = blood(graph, ancestryA, graph.spouse(k));
+            if (path != null && (best == null || path.length() + 1 < best.length())) {
+                path.kind = Kind.SPOUSE_OF_RELATIVE;
+                path.marriageType = graph.relationshipType(k);
+                path.add(graph, b, SPOUSE);
+                best = path;
+            }
+        }
+        for (int k = graph.spousesStart(a); k < graph.spousesEnd(a); k++) {
+            if (!isUnion(graph.relationshipType(k))) {
+                continue;
+            }
+            int spouse = graph.spouse(k);
+            KinshipPath path = blood(graph, new Ancestry(graph, spouse), b);
+            if (path != null && (best == null || path.length() + 1 < best.length())) {
+                KinshipPath viaSpouse = new KinshipPath(Kind.RELATIVE_OF_SPOUSE);
+                viaSpouse.add(graph, a, SELF);
+                viaSpouse.append(path, SPOUSE);
+                viaSpouse.up = path.up;
+                viaSpouse.down = path.down;
+                viaSpouse.half = path.half;
+                viaSpouse.commonAncestor = path.commonAncestor;
+                viaSpouse.marriageType = graph.relationshipType(k);
+                best = viaSpouse;
+            }
+        }
+        return best != null ? best : new KinshipPath(Kind.NONE);
+    }
+
+    /**
+     * Walks the ancestry of {@code target} generation by generation until no shorter connection to
+     * the already expanded ancestry of the origin is possible.
+     */
+    private KinshipPath blood(GenealogyGraphService.View graph, Ancestry origin, int target) {
+        LongIntHashMap depth = new LongIntHashMap(64);
+        LongIntHashMap via = new LongIntHashMap(64);
+        depth.put(target + 1L, 0);
+        via.put(target + 1L, target);
+
+        int[] level = {target};
+        int levelSize = 1;
+        int bestSum = Integer.MAX_VALUE;
+        int bestNode = NONE;
+        int bestUp = 0;
+        int bestDown = 0;
+        int bestCount = 0;
+
+        for (int d = 0; levelSize > 0 && d < bestSum && d <= MAX_GENERATIONS; d++) {
+            int[] next = new int[levelSize * 2];
+            int nextSize = 0;
+            for (int i = 0; i < levelSize; i++) {
+                int node = level[i];
+                int up = origin.depth(node);
+                if (up >= 0) {
+                    if (up + d < bestSum) {
+                        bestSum = up + d;
+                        bestNode = node;
+                        bestUp = up;
+                        bestDown = d;
+                        bestCount = 1;
+                    } else if (up == bestUp && d == bestDown) {
+                        bestCount++;
+                    }
+                    continue;
+                }
+                for (int parent : new int[]{graph.father(node), graph.mother(node)}) {
+                    if (parent != NONE && depth.get(parent + 1L, -1) < 0) {
+                        depth.put(parent + 1L, d + 1);
+                        via.put(parent + 1L, node);
+                        next[nextSize++] = parent;
+                    }
+                }
+            }
+            level = next;
+            levelSize = nextSize;
+        }
+        if (bestNode == NONE) {
+            return null;
+        }
+
+        KinshipPath path = new KinshipPath(Kind.BLOOD);
+        path.up = bestUp;
+        path.down = bestDown;
+        path.commonAncestor = graph.personId(bestNode);
+
+        int[] upward = origin.pathTo(bestNode);
+        for (int i = 0; i < upward.length; i++) {
+            path.add(graph, upward[i], i == 0 ? SELF : PARENT);
+        }
+        int below = bestNode;
+        for (int node = via.get(bestNode + 1L, NONE); bestDown > 0; node = via.get(node + 1L, NONE)) {
+            path.add(graph, node, CHILD);
+            if (below == bestNode) {
+                below = node;
+            }
+            if (node == target) {
+                break;
+            }
+        }
+
+        // A single shared ancestor only means "half" when both lines name a different other parent
+        if (bestUp > 0 && bestDown > 0 && bestCount == 1) {
+            int originSide = upward[upward.length - 2];
+            int otherOrigin = otherParent(graph, originSide, bestNode);
+            int otherTarget = otherParent(graph, below, bestNode);
+            path.half = otherOrigin != NONE && otherTarget != NONE && otherOrigin != otherTarget;
+        }
+        return path;
+    }
+
+    private int otherParent(GenealogyGraphService.View graph, int child, int parent) {
+        return graph.father(child) == parent ? graph.mother(child) : graph.father(child);
+    }
+
+    private boolean isUnion(RelationshipType type) {
+        return type == RelationshipType.MARRIED || type == RelationshipType.PARTNER;
+    }
+
+    private KinshipDTO toDto(Long personId, Long relativeId, KinshipPath found) {
+        KinshipDTO dto = new KinshipDTO();
+        dto.setPersonId(personId);
+        dto.setRelativeId(relativeId);
+        dto.setRelated(found.kind != Kind.NONE);
+        if (found.kind == Kind.NONE) {
+            dto.setRelation("not related");
+            return dto;
+        }
+
+        Map<Long, Person> persons = new HashMap<>();
+        for (Person person : personRepository.findAllById(found.personIds)) {
+            persons.put(person.getId(), person);
+        }
+        for (int i = 0; i < found.personIds.size(); i++) {
+            Person person = persons.get(found.personIds.get(i));
+            dto.getPath().add(new KinshipStepDTO(found.personIds.get(i),
+                    person != null ? person.getFullName() : null, found.links.get(i)));
+        }
+
+        dto.setCommonAncestorId(found.commonAncestor);
+        dto.setRelation(label(found, genderOf(persons, relativeId),
+                genderOf(persons, found.personIds.get(Math.max(0, found.personIds.size() - 2)))));
+        return dto;
+    }
+
+    private Gender genderOf(Map<Long, Person> persons, Long id) {
+        Person person = persons.get(id);
+        return person != null ? person.getGender() : Gender.OTHER;
+    }
+
+    private String label(KinshipPath path, Gender relative, Gender linkingRelative) {
+        int up = path.up;
+        int down = path.down;
+        switch (path.kind) {
+            case BLOOD:
+                return bloodLabel(up, down, path.half, relative);
+            case SPOUSE:
+                return spouseWord(path.marriageType, relative);
+            case SPOUSE_OF_RELATIVE:
+                if (up == 1 && down == 0) {
+                    return word(relative, "stepfather", "stepmother", "step-parent");
+                }
+                if (up == 0 && down == 1) {
+                    return word(relative, "son-in-law", "daughter-in-law", "child-in-law");
+                }
+                if (up == 1 && down == 1) {
+                    return word(relative, "brother-in-law", "sister-in-law", "sibling-in-law");
+                }
+                return spouseWord(path.marriageType, relative) + " of "
+                        + bloodLabel(up, down, path.half, linkingRelative);
+            case RELATIVE_OF_SPOUSE:
+                if (up == 1 && down == 0) {
+                    return word(relative, "father-in-law", "mother-in-law", "parent-in-law");
+                }
+                if (up == 0 && down == 1) {
+                    return word(relative, "stepson", "stepdaughter", "stepchild");
+                }
+                if (up == 1 && down == 1) {
+                    return word(relative, "brother-in-law", "sister-in-law", "sibling-in-law");
+                }
+                return (path.marriageType == RelationshipType.PARTNER ? "partner's " : "spouse's ")
+                        + bloodLabel(up, down, path.half, relative);
+            default:
+                return "not related";
+        }
+    }
+
+    private String bloodLabel(int up, int down, boolean half, Gender gender) {
+        String halfPrefix = half ? "half-" : "";
+        if (up == 0 && down == 0) {
+            return "self";
+        }
+        if (down == 0) {
+            return up == 1 ? word(gender, "father", "mother", "parent")
+                    : greats(up - 2) + word(gender, "grandfather", "grandmother", "grandparent");
+        }
+        if (up == 0) {
+            return down == 1 ? word(gender, "son", "daughter", "child")
+                    : greats(down - 2) + word(gender, "grandson", "granddaughter", "grandchild");
+        }
+        if (up == 1 && down == 1) {
+            return halfPrefix + word(gender, "brother", "sister", "sibling");
+        }
+        if (up == 1) {
+            return halfPrefix + (down == 2 ? word(gender, "nephew", "niece", "nibling")
+                    : greats(down - 3) + word(gender, "grandnephew", "grandniece", "grandnibling"));
+        }
+        if (down == 1) {
+            return halfPrefix + greats(up - 2) + word(gender, "uncle", "aunt", "pibling");
+        }
+
+        int degree = Math.min(up, down) - 1;
+        int removed = Math.abs(up - down);
+        String cousin = halfPrefix + ordinal(degree) + " cousin";
+        if (removed == 0) {
+            return cousin;
+        }
+        return cousin + " " + (removed == 1 ? "once" : removed == 2 ? "twice" : removed + " times") + " removed";
+    }
+
+    private String spouseWord(RelationshipType type, Gender gender) {
+        if (type == RelationshipType.PARTNER) {
+            return "partner";
+        }
+        String spouse = word(gender, "husband", "wife", "spouse");
+        return type == RelationshipType.DIVORCED ? "former " + spouse : spouse;
+    }
+
+    private static String greats(int count) {
+        if (count <= 0) {
+            return "";
+        }
+        return count <= 3 ? "great-".repeat(count) : count + "x great-";
+    }
+
+    private static String ordinal(int n) {
+        String[] words = {"zeroth", "first", "second", "third", "fourth", "fifth", "sixth", "seventh", "eighth",
+                "ninth", "tenth"};
+        if (n < words.length) {
+            return words[n];
+        }
+        int mod100 = n % 100;
+        String suffix = mod100 >= 11 && mod100 <= 13 ? "th"
+                : n % 10 == 1 ? "st" : n % 10 == 2 ? "nd" : n % 10 == 3 ? "rd" : "th";
+        return n + suffix;
+    }
+
+    private static String word(Gender gender, String male, String female, String neutral) {
+        if (gender == Gender.MALE) {
+            return male;
+        }
+        return gender == Gender.FEMALE ? female : neutral;
+    }
+
+    private enum Kind {
+        BLOOD, SPOUSE, SPOUSE_OF_RELATIVE, RELATIVE_OF_SPOUSE, NONE
+    }
+
+    private static class KinshipPath {
+        private Kind kind;
+        private final List<Long> personIds = new ArrayList<>();
+        private final List<String> links = new ArrayList<>();
+        private int up;
+        private int down;
+        private boolean half;
+        private Long commonAncestor;
+        private RelationshipType marriageType;
+
+        KinshipPath(Kind kind) {
+            this.kind = kind;
+        }
+
+        void add(GenealogyGraphService.View graph, int node, String link) {
+            personIds.add(graph.personId(node));
+            links.add(link);
+        }
+
+        void append(KinshipPath other, String firstLink) {
+            for (int i = 0; i < other.personIds.size(); i++) {
+                personIds.add(other.personIds.get(i));
+                links.add(i == 0 ? firstLink : other.links.get(i));
+            }
+        }
+
+        int length() {
+            return personIds.size();
+        }
+    }
+
+    /**
+     * Breadth-first expansion of all recorded ancestors of a node, with the generation distance
+     * and the child each ancestor was reached from.
+     */
+    private static class Ancestry {
+        private final LongIntHashMap depth = new LongIntHashMap(64);
+        private final LongIntHashMap via = new LongIntHashMap(64);
+        private final int start;
+
+        Ancestry(GenealogyGraphService.View graph, int start) {
+            this.start = start;
+            depth.put(start + 1L, 0);
+            via.put(start + 1L, start);
+
+            int[] queue = new int[16];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            while (head < tail) {
+                int node = queue[head++];
+                int d = depth.get(node + 1L, 0);
+                if (d >= MAX_GENERATIONS) {
+                    continue;
+                }
+                for (int parent : new int[]{graph.father(node), graph.mother(node)}) {
+                    if (parent != NONE && depth.get(parent + 1L, -1) < 0) {
+                        depth.put(parent + 1L, d + 1);
+                        via.put(parent + 1L, node);
+                        if (tail == queue.length) {
+                            queue = Arrays.copyOf(queue, queue.length << 1);
+                        }
+                        queue[tail++] = parent;
+                    }
+                }
+            }
+        }
+
+        int depth(int node) {
+            return depth.get(node + 1L, -1);
+        }
+
+        /**
+         * Nodes from the start up to the given ancestor, inclusive.
+         */
+        int[] pathTo(int ancestor) {
+            int[] path = new int[depth(ancestor) + 1];
+            int node = ancestor;
+            for (int i = path.length - 1; i >= 0; i--) {
+                path[i] = node;
+                node = via.get(node + 1L, start);
+            }
+            return path;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.familytree.service;
+
+import com.familytree.dto.PersonMergeRequest;
+import com.familytree.entity.Person;
+import com.familytree.entity.Relationship;
+import com.familytree.entity.RelationshipType;
+import com.familytree.event.ChangeAction;
+import com.familytree.event.PersonChangedEvent;
+import com.familytree.event.RelationshipChangedEvent;
+import com.familytree.repository.PersonRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Merges a duplicate person into the record that survives. Links pointing at the duplicate are
+ * moved with set-based SQL, so the cost does not depend on how many children or partners it has.
+ */
+@Service
+public class PersonMergeService {
+
+    private static final String SELECT_CHILDREN = "SELECT id FROM person WHERE father_id = ? OR mother_id = ?";
+
+    private static final String COUNT_SHARED_CHILDREN = "SELECT COUNT(*) FROM person "
+            + "WHERE (father_id = ? AND mother_id = ?) OR (father_id = ? AND mother_id = ?)";
+
+    private static final String SELECT_RELATIONSHIPS = "SELECT id FROM relationships "
+            + "WHERE person1_id = ? OR person2_id = ?";
+
+    // Relationships that would become a self-link or repeat one the kept person already has
+    private static final String SELECT_REDUNDANT_RELATIONSHIPS = "SELECT r.id FROM relationships r "
+            + "WHERE (r.person1_id = ? OR r.person2_id = ?) AND ("
+            + "r.person1_id = ? OR r.person2_id = ? OR EXISTS (SELECT 1 FROM relationships k "
+            + "WHERE k.relationship_type = r.relationship_type AND ("
+            + "(k.person1_id = ? AND k.person2_id = CASE WHEN r.person1_id = ? THEN r.person2_id ELSE r.person1_id END) "
+            + "OR (k.person2_id = ? AND k.person1_id = CASE WHEN r.person1_id = ? THEN r.person2_id ELSE r.person1_id END))))";
+
+    private static final String REPOINT_FATHER =
+            "UPDATE person SET father_id = ?, version = version + 1, updated_at = ? WHERE father_id = ?";
+    private static final String REPOINT_MOTHER =
+            "UPDATE person SET mother_id = ?, version = version + 1, updated_at = ? WHERE mother_id = ?";
+    private static final String REPOINT_PERSON1 =
+            "UPDATE relationships SET person1_id = ?, version = version + 1, updated_at = ? WHERE person1_id = ?";
+    private static final String REPOINT_PERSON2 =
+            "UPDATE relationships SET person2_id = ?, version = version + 1, updated_at = ? WHERE person2_id = ?";
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long getCurrentUserId() {
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof UserDetailsImpl) {
+            return ((UserDetailsImpl) principal).getId();
+        }
+        return null;
+    }
+
+    /**
+     * Fills the kept person's empty fields from the duplicate, repoints every parent link and
+     * relationship from the duplicate to the kept person, drops relationships that would become
+     * redundant, deletes the duplicate and records a single audit entry.
+     */
+    @Transactional
+    public Person merge(PersonMergeRequest request) {
+        Long keepId = request.getKeepId();
+        Long removeId = request.getRemoveId();
+        if (keepId == null || removeId == null || keepId.equals(removeId)) {
+            throw new RuntimeException("keepId and removeId must name two different persons.");
+        }
+        Person keep = personRepository.findById(keepId)
+                .orElseThrow(() -> new RuntimeException("Person to keep not found"));
+        Person remove = personRepository.findById(removeId)
+                .orElseThrow(() -> new RuntimeException("Person to remove not found"));
+        if (removeId.equals(keep.getFatherId()) || removeId.equals(keep.getMotherId())
+                || keepId.equals(remove.getFatherId()) || keepId.equals(remove.getMotherId())) {
+            throw new RuntimeException("A person cannot be merged with their own parent or child.");
+        }
+        // Repointing would make the kept person both father and mother of these children
+        Long sharedChildren = jdbcTemplate.queryForObject(COUNT_SHARED_CHILDREN, Long.class,
+                removeId, keepId, keepId, removeId);
+        if (sharedChildren != null && sharedChildren > 0) {
+            throw new RuntimeException("Cannot merge two persons who are the father and mother of the same child.");
+        }
+
+        Long userId = getCurrentUserId();
+        // The duplicate's image is only carried over when the kept person has none
+        String droppedImageUrl = keep.getImageUrl() != null ? remove.getImageUrl() : null;
+        fillGaps(keep, remove);
+        keep.setUpdatedBy(userId);
+        personRepository.saveAndFlush(keep);
+        entityManager.detach(remove);
+
+        List<Long> childIds = jdbcTemplate.queryForList(SELECT_CHILDREN, Long.class, removeId, removeId);
+        List<Long> relationshipIds = jdbcTemplate.queryForList(SELECT_RELATIONSHIPS, Long.class, removeId, removeId);
+        List<Long> redundantIds = jdbcTemplate.queryForList(SELECT_REDUNDANT_RELATIONSHIPS, Long.class,
+                removeId, removeId, keepId, keepId, keepId, removeId, keepId, removeId);
+
+        jdbcTemplate.batchUpdate("DELETE FROM relationships WHERE id = ?", redundantIds, redundantIds.size(),
+                (ps, id) -> ps.setLong(1, id));
+        // Rows rewritten over JDBC get their version and updatedAt set by hand, so ETags and delta
+        // sync see the change
+        LocalDateTime now = LocalDateTime.now();
+        int childLinks = jdbcTemplate.update(REPOINT_FATHER, keepId, now, removeId)
+                + jdbcTemplate.update(REPOINT_MOTHER, keepId, now, removeId);
+        int relationshipLinks = jdbcTemplate.update(REPOINT_PERSON1, keepId, now, removeId)
+                + jdbcTemplate.update(REPOINT_PERSON2, keepId, now, removeId);
+        jdbcTemplate.update("DELETE FROM person WHERE id = ?", removeId);
+        fileStorageService.updateReference(droppedImageUrl, null);
+
+        List<Long> evictedPersons = new ArrayList<>(childIds);
+        evictedPersons.add(removeId);
+        entityCacheService.evict(Person.class, evictedPersons);
+        entityCacheService.evict(Relationship.class, relationshipIds);
+
+        auditService.logAction("PERSON", keepId, "MERGE", userId,
+                "Merged " + remove.getFullName() + " (" + removeId + ") into " + keep.getFullName() + " (" + keepId
+                        + "): " + childLinks + " parent links and " + relationshipLinks
+                        + " relationships repointed, " + redundantIds.size() + " redundant relationships removed");
+        publishChanges(keep, remove, childIds, relationshipIds, redundantIds);
+        duplicateDetectionService.forgetPerson(removeId);
+        return keep;
+    }
+
+    private void fillGaps(Person keep, Person remove) {
+        if (keep.getDateOfBirth() == null) {
+            keep.setDateOfBirth(remove.getDateOfBirth());
+        }
+        if (keep.getDateOfDeath() == null) {
+            keep.setDateOfDeath(remove.getDateOfDeath());
+        }
+        if (keep.getIsAlive() == null) {
+            keep.setIsAlive(remove.getIsAlive());
+        }
+        if (keep.getImageUrl() == null) {
+            keep.setImageUrl(remove.getImageUrl());
+        }
+        if (keep.getContactNumber() == null) {
+            keep.setContactNumber(remove.getContactNumber());
+        }
+        if (keep.getEmail() == null) {
+            keep.setEmail(remove.getEmail());
+        }
+        if (keep.getFather() == null) {
+            keep.setFather(remove.getFather());
+        }
+        if (keep.getMother() == null) {
+            keep.setMother(remove.getMother());
+        }
+    }
+
+    private void publishChanges(Person keep, Person remove, List<Long> childIds, List<Long> relationshipIds,
+            List<Long> redundantIds) {
+        eventPublisher.publishEvent(new PersonChangedEvent(remove.getId(), remove.getFullName(),
+                null, null, ChangeAction.DELETE, null));
+        eventPublisher.publishEvent(new PersonChangedEvent(keep.getId(), keep.getFullName(),
+                keep.getFatherId(), keep.getMotherId(), ChangeAction.UPDATE, null));
+
+        Set<Long> children = new HashSet<>(childIds);
+        if (!children.isEmpty()) {
+            jdbcTemplate.query("SELECT id, full_name, father_id, mother_id FROM person "
+                    + "WHERE father_id = ? OR mother_id = ?", rs -> {
+                        long id = rs.getLong(1);
+                        if (children.contains(id)) {
+                            eventPublisher.publishEvent(new PersonChangedEvent(id, rs.getString(2),
+                                    rs.getObject(3, Long.class), rs.getObject(4, Long.class), ChangeAction.UPDATE, null));
+                        }
+                    }, keep.getId(), keep.getId());
+        }
+
+        for (Long id : redundantIds) {
+            eventPublisher.publishEvent(new RelationshipChangedEvent(id, null, null, null, ChangeAction.DELETE));
+        }
+        Set<Long> moved = new HashSet<>(relationshipIds);
+        moved.removeAll(redundantIds);
+        if (!moved.isEmpty()) {
+            jdbcTemplate.query("SELECT id, person1_id, person2_id, relationship_type FROM relationships "
+                    + "WHERE person1_id = ? OR person2_id = ?", rs -> {
+                        long id = rs.getLong(1);
+                        if (moved.contains(id)) {
+                            eventPublisher.publishEvent(new RelationshipChangedEvent(id, rs.getLong(2),
+                                    rs.getLong(3), RelationshipType.valueOf(rs.getString(4)), ChangeAction.UPDATE));
+                        }
+                    }, keep.getId(), keep.getId());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.familytree.service;
+
+import com.familytree.dto.PersonSearchResultDTO;
+import com.familytree.event.ChangeAction;
+import com.familytree.event.PersonChangedEvent;
+import com.familytree.util.NameSearchIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Typeahead name search over an in-memory {@link NameSearchIndex}, loaded at startup and kept
+ * current from person change events.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class PersonSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(PersonSearchService.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private NameSearchIndex index = new NameSearchIndex(16);
+
+    @PostConstruct
+    public void reload() {
+        long start = System.currentTimeMillis();
+
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM person", Integer.class);
+        NameSearchIndex newIndex = new NameSearchIndex(count != null ? count : 16);
+        jdbcTemplate.query("SELECT id, full_name FROM person", rs -> {
+            newIndex.put(rs.getLong(1), rs.getString(2));
+        });
+
+        lock.writeLock().lock();
+        try {
+            index = newIndex;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Loaded name search index: {} persons in {} ms",
+                newIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getAction() == ChangeAction.DELETE) {
+                index.remove(event.getPersonId());
+            } else if (event.getFullName() != null) {
+                index.put(event.getPersonId(), event.getFullName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<PersonSearchResultDTO> search(String query, Integer limit) {
+        if (!StringUtils.hasText(query)) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit != null ? limit : DEFAULT_LIMIT, MAX_LIMIT));
+        List<NameSearchIndex.Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = index.search(query, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits.stream()
+                .map(hit -> new PersonSearchResultDTO(hit.id(), hit.name(), hit.score()))
+                .collect(Collectors.toList());
+    }
+}
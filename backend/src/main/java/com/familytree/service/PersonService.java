@@ -1,36 +1,90 @@
 package com.familytree.service;
 
+import com.familytree.dto.CursorPage;
+import com.familytree.dto.LineageEntryDTO;
+import com.familytree.dto.PersonBatchItemDTO;
+import com.familytree.dto.PersonBatchResultDTO;
 import com.familytree.dto.PersonDTO;
+import com.familytree.dto.PersonPageRequest;
+import com.familytree.dto.PersonView;
 import com.familytree.entity.Person;
-import com.familytree.entity.User;
+import com.familytree.event.ChangeAction;
+import com.familytree.event.PersonChangedEvent;
+import com.familytree.repository.BulkInsertRepository;
+import com.familytree.repository.KeysetSpecifications;
+import com.familytree.repository.LineageRow;
 import com.familytree.repository.PersonRepository;
-import com.familytree.repository.UserRepository;
+import com.familytree.repository.PersonSpecifications;
+import com.familytree.util.KeysetCursor;
+import com.familytree.util.ThumbnailSize;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PersonService {
 
+    public static final int MAX_LINEAGE_DEPTH = 20;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_BATCH_SIZE = 1000;
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+    private static final TypeReference<Map<String, Object>> VIEW_FIELDS = new TypeReference<>() {
+    };
+
     @Autowired
     private PersonRepository personRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private BulkInsertRepository bulkInsertRepository;
 
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private Long getCurrentUserId() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        if (principal instanceof UserDetails) {
-            String username = ((UserDetails) principal).getUsername();
-            return userRepository.findByUsername(username).map(User::getId).orElse(null);
+        if (principal instanceof UserDetailsImpl) {
+            return ((UserDetailsImpl) principal).getId();
         }
         return null;
     }
@@ -45,8 +99,10 @@ public class PersonService {
         person.setUpdatedBy(userId);
 
         Person savedPerson = personRepository.save(person);
+        fileStorageService.updateReference(null, savedPerson.getImageUrl());
         auditService.logAction("PERSON", savedPerson.getId(), "CREATE", userId,
                 "Created person: " + savedPerson.getFullName());
+        publishChange(savedPerson, ChangeAction.CREATE, changedFields(null, savedPerson));
         return savedPerson;
     }
 
@@ -60,16 +116,169 @@ public class PersonService {
             throw new RuntimeException("You do not have permission to update this person.");
         }
 
+        String previousImageUrl = person.getImageUrl();
+        PersonView before = PersonView.from(person);
         mapDtoToEntity(personDTO, person);
 
         person.setUpdatedBy(userId);
 
         Person savedPerson = personRepository.save(person);
+        fileStorageService.updateReference(previousImageUrl, savedPerson.getImageUrl());
         auditService.logAction("PERSON", savedPerson.getId(), "UPDATE", userId,
                 "Updated person: " + savedPerson.getFullName());
+        publishChange(savedPerson, ChangeAction.UPDATE, changedFields(before, savedPerson));
         return savedPerson;
     }
 
+    /**
+     * Creates and updates many persons in one transaction. Every existing person the batch names
+     * (as an update target or a parent) is loaded with one IN query, new rows go through a JDBC
+     * batch insert, and parents given by tempId are linked once their ids are known.
+     */
+    @Transactional
+    public PersonBatchResultDTO saveBatch(List<PersonBatchItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("Batch is empty.");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("Batch exceeds the limit of " + MAX_BATCH_SIZE + " persons.");
+        }
+
+        Map<String, Integer> tempIndex = new HashMap<>();
+        Set<Long> referencedIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            PersonBatchItemDTO item = items.get(i);
+            if (item.getId() == null && (!StringUtils.hasText(item.getFullName()) || item.getGender() == null)) {
+                throw new RuntimeException(batchError(i, "fullName and gender are required"));
+            }
+            if (item.getTempId() != null) {
+                if (item.getId() != null) {
+                    throw new RuntimeException(batchError(i, "tempId is only allowed on new persons"));
+                }
+                if (tempIndex.putIfAbsent(item.getTempId(), i) != null) {
+                    throw new RuntimeException(batchError(i, "duplicate tempId " + item.getTempId()));
+                }
+            }
+            Stream.of(item.getId(), item.getFatherId(), item.getMotherId())
+                    .filter(Objects::nonNull)
+                    .forEach(referencedIds::add);
+        }
+        Map<Long, Person> existing = personRepository.findAllById(referencedIds).stream()
+                .collect(Collectors.toMap(Person::getId, p -> p));
+
+        Long userId = getCurrentUserId();
+        boolean admin = isAdmin();
+        LocalDateTime now = LocalDateTime.now();
+        Person[] persons = new Person[items.size()];
+        String[] previousImageUrls = new String[items.size()];
+        PersonView[] previousViews = new PersonView[items.size()];
+        List<Person> created = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            PersonBatchItemDTO item = items.get(i);
+            Person person;
+            if (item.getId() != null) {
+                person = existing.get(item.getId());
+                if (person == null) {
+                    throw new RuntimeException(batchError(i, "person " + item.getId() + " not found"));
+                }
+                if (!person.getCreatedBy().equals(userId) && !admin) {
+                    throw new RuntimeException(batchError(i, "you do not have permission to update this person"));
+                }
+                previousImageUrls[i] = person.getImageUrl();
+                previousViews[i] = PersonView.from(person);
+            } else {
+                person = new Person();
+                person.setCreatedBy(userId);
+                person.setCreatedAt(now);
+                person.setUpdatedAt(now);
+                created.add(person);
+            }
+            mapFields(item, person);
+            person.setUpdatedBy(userId);
+            person.setFather(resolveBatchParent(i, item.getFatherId(), item.getFatherTempId(), tempIndex, existing));
+            person.setMother(resolveBatchParent(i, item.getMotherId(), item.getMotherTempId(), tempIndex, existing));
+            persons[i] = person;
+        }
+
+        bulkInsertRepository.insertPersons(created);
+
+        List<Person> relinked = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            PersonBatchItemDTO item = items.get(i);
+            if (item.getFatherTempId() == null && item.getMotherTempId() == null) {
+                continue;
+            }
+            Person person = persons[i];
+            if (item.getFatherTempId() != null) {
+                person.setFather(linkTo(person, persons[tempIndex.get(item.getFatherTempId())]));
+            }
+            if (item.getMotherTempId() != null) {
+                person.setMother(linkTo(person, persons[tempIndex.get(item.getMotherTempId())]));
+            }
+            if (item.getId() == null) {
+                relinked.add(person);
+            }
+        }
+        bulkInsertRepository.updateParents(relinked);
+        entityManager.flush();
+
+        Map<String, Long> ids = new LinkedHashMap<>();
+        List<PersonView> views = new ArrayList<>(persons.length);
+        for (int i = 0; i < items.size(); i++) {
+            PersonBatchItemDTO item = items.get(i);
+            Person person = persons[i];
+            boolean isNew = item.getId() == null;
+            if (item.getTempId() != null) {
+                ids.put(item.getTempId(), person.getId());
+            }
+            fileStorageService.updateReference(previousImageUrls[i], person.getImageUrl());
+            auditService.logAction("PERSON", person.getId(), isNew ? "CREATE" : "UPDATE", userId,
+                    (isNew ? "Created person: " : "Updated person: ") + person.getFullName());
+            PersonView view = PersonView.from(person);
+            publishChange(person, isNew ? ChangeAction.CREATE : ChangeAction.UPDATE,
+                    changedFields(previousViews[i], view));
+            views.add(view);
+        }
+        return new PersonBatchResultDTO(ids, views);
+    }
+
+    private Person resolveBatchParent(int index, Long parentId, String parentTempId, Map<String, Integer> tempIndex,
+            Map<Long, Person> existing) {
+        if (parentTempId != null) {
+            Integer parentIndex = tempIndex.get(parentTempId);
+            if (parentIndex == null) {
+                throw new RuntimeException(batchError(index, "unknown parent tempId " + parentTempId));
+            }
+            if (parentIndex == index) {
+                throw new RuntimeException(batchError(index, "a person cannot be their own parent"));
+            }
+            // Linked after the insert, once the parent has an id
+            return null;
+        }
+        if (parentId == null) {
+            return null;
+        }
+        Person parent = existing.get(parentId);
+        if (parent == null) {
+            throw new RuntimeException(batchError(index, "parent " + parentId + " not found"));
+        }
+        return parent;
+    }
+
+    /**
+     * Managed (updated) persons must point at a managed reference; rows inserted over JDBC are
+     * not in the persistence context.
+     */
+    private Person linkTo(Person person, Person parent) {
+        return entityManager.contains(person)
+                ? entityManager.getReference(Person.class, parent.getId())
+                : parent;
+    }
+
+    private static String batchError(int index, String message) {
+        return "Item " + index + ": " + message + ".";
+    }
+
     @Transactional
     public void deletePerson(Long id) {
         Person person = personRepository.findById(id)
@@ -82,25 +291,157 @@ public class PersonService {
 
         auditService.logAction("PERSON", id, "DELETE", userId, "Deleted person with ID: " + id);
         personRepository.deleteById(id);
+        fileStorageService.updateReference(person.getImageUrl(), null);
+        publishChange(person, ChangeAction.DELETE, null);
     }
 
     public List<Person> getAllPersons() {
         return personRepository.findAll(); // Global visibility
     }
 
+    /**
+     * Writes every person as one JSON object per line while reading them through a database
+     * cursor, clearing the persistence context periodically so memory stays flat.
+     */
+    @Transactional(readOnly = true)
+    public long writePersonsAsNdjson(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.setRootValueSeparator(null);
+        long count = 0;
+        try (Stream<Person> persons = personRepository.streamAll()) {
+            Iterator<Person> iterator = persons.iterator();
+            while (iterator.hasNext()) {
+                writeNdjsonLine(json, iterator.next());
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    json.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        json.flush();
+        return count;
+    }
+
+    private void writeNdjsonLine(JsonGenerator json, Person person) throws IOException {
+        json.writeObject(PersonView.from(person));
+        json.writeRaw('\n');
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Person> getPersonPage(PersonPageRequest request) {
+        int size = Math.max(1, Math.min(request.getSize() != null ? request.getSize() : DEFAULT_PAGE_SIZE,
+                MAX_PAGE_SIZE));
+        boolean descending = "desc".equalsIgnoreCase(request.getDirection());
+        String attribute = sortAttribute(request.getSort());
+
+        Specification<Person> spec = Specification.where(null);
+        if (StringUtils.hasText(request.getName())) {
+            spec = spec.and(PersonSpecifications.nameStartsWith(request.getName().trim()));
+        }
+        if (request.getGender() != null) {
+            spec = spec.and(PersonSpecifications.hasGender(request.getGender()));
+        }
+        if (request.getAlive() != null) {
+            spec = spec.and(PersonSpecifications.isAlive(request.getAlive()));
+        }
+        if (request.getBornFrom() != null) {
+            spec = spec.and(PersonSpecifications.bornOnOrAfter(request.getBornFrom()));
+        }
+        if (request.getBornTo() != null) {
+            spec = spec.and(PersonSpecifications.bornOnOrBefore(request.getBornTo()));
+        }
+        if (StringUtils.hasText(request.getCursor())) {
+            spec = spec.and(afterCursor(attribute, KeysetCursor.decode(request.getCursor()), descending));
+        }
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, attribute).and(Sort.by(direction, "id"));
+        List<Person> rows = personRepository.findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
+
+        boolean hasMore = rows.size() > size;
+        List<Person> items = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        String nextCursor = null;
+        if (hasMore) {
+            Person last = items.get(items.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getId(), sortValue(last, attribute));
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private String sortAttribute(String sort) {
+        if ("dateOfBirth".equals(sort) || "updatedAt".equals(sort)) {
+            return sort;
+        }
+        return "fullName";
+    }
+
+    private Object sortValue(Person person, String attribute) {
+        switch (attribute) {
+            case "dateOfBirth":
+                return person.getDateOfBirth();
+            case "updatedAt":
+                return person.getUpdatedAt();
+            default:
+                return person.getFullName();
+        }
+    }
+
+    private Specification<Person> afterCursor(String attribute, KeysetCursor cursor, boolean descending) {
+        String value = cursor.getValue();
+        switch (attribute) {
+            case "dateOfBirth":
+                return KeysetSpecifications.after(attribute, value != null ? LocalDate.parse(value) : null,
+                        cursor.getId(), descending);
+            case "updatedAt":
+                return KeysetSpecifications.after(attribute, value != null ? LocalDateTime.parse(value) : null,
+                        cursor.getId(), descending);
+            default:
+                return KeysetSpecifications.after(attribute, value, cursor.getId(), descending);
+        }
+    }
+
     public Person getPerson(Long id) {
         return personRepository.findById(id).orElseThrow(() -> new RuntimeException("Person not found"));
     }
 
+    @Transactional(readOnly = true)
+    public List<LineageEntryDTO> getAncestors(Long id, int depth) {
+        return toLineage(personRepository.findAncestors(id, clampLineageDepth(depth)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<LineageEntryDTO> getDescendants(Long id, int depth) {
+        return toLineage(personRepository.findDescendants(id, clampLineageDepth(depth)));
+    }
+
+    private List<LineageEntryDTO> toLineage(List<LineageRow> rows) {
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Person not found");
+        }
+        return rows.stream().map(row -> {
+            LineageEntryDTO entry = new LineageEntryDTO();
+            entry.setId(row.getId());
+            entry.setFullName(row.getFullName());
+            entry.setGender(row.getGender());
+            entry.setDateOfBirth(row.getDateOfBirth());
+            entry.setDateOfDeath(row.getDateOfDeath());
+            entry.setIsAlive(row.getIsAlive());
+            entry.setImageUrl(row.getImageUrl());
+            entry.setThumbnailUrl(ThumbnailSize.SMALL.urlFor(row.getImageUrl()));
+            entry.setFatherId(row.getFatherId());
+            entry.setMotherId(row.getMotherId());
+            entry.setGeneration(row.getGeneration());
+            entry.setPath(Arrays.stream(row.getPath().split(",")).map(Long::valueOf).collect(Collectors.toList()));
+            return entry;
+        }).collect(Collectors.toList());
+    }
+
+    private int clampLineageDepth(int depth) {
+        return Math.max(0, Math.min(depth, MAX_LINEAGE_DEPTH));
+    }
+
     private void mapDtoToEntity(PersonDTO dto, Person entity) {
-        entity.setFullName(dto.getFullName());
-        entity.setGender(dto.getGender());
-        entity.setDateOfBirth(dto.getDateOfBirth());
-        entity.setDateOfDeath(dto.getDateOfDeath());
-        entity.setIsAlive(dto.getIsAlive());
-        entity.setImageUrl(dto.getImageUrl());
-        entity.setContactNumber(dto.getContactNumber());
-        entity.setEmail(dto.getEmail());
+        mapFields(dto, entity);
 
         if (dto.getFatherId() != null) {
             Person father = personRepository.findById(dto.getFatherId()).orElse(null);
@@ -117,6 +458,47 @@ public class PersonService {
         }
     }
 
+    private void mapFields(PersonDTO dto, Person entity) {
+        entity.setFullName(dto.getFullName());
+        entity.setGender(dto.getGender());
+        entity.setDateOfBirth(dto.getDateOfBirth());
+        entity.setDateOfDeath(dto.getDateOfDeath());
+        entity.setIsAlive(dto.getIsAlive());
+        entity.setImageUrl(dto.getImageUrl());
+        entity.setContactNumber(dto.getContactNumber());
+        entity.setEmail(dto.getEmail());
+    }
+
+    private void publishChange(Person person, ChangeAction action, Map<String, Object> changes) {
+        eventPublisher.publishEvent(new PersonChangedEvent(
+                person.getId(),
+                person.getFullName(),
+                person.getFatherId(),
+                person.getMotherId(),
+                action,
+                changes));
+    }
+
+    private Map<String, Object> changedFields(PersonView before, Person after) {
+        return changedFields(before, PersonView.from(after));
+    }
+
+    /**
+     * The fields of {@code after} that differ from {@code before}, with their new values as they
+     * appear in the JSON view. Timestamps are left out since they are only set on flush.
+     */
+    private Map<String, Object> changedFields(PersonView before, PersonView after) {
+        Map<String, Object> previous = before != null ? objectMapper.convertValue(before, VIEW_FIELDS) : Map.of();
+        Map<String, Object> changes = new LinkedHashMap<>();
+        objectMapper.convertValue(after, VIEW_FIELDS).forEach((field, value) -> {
+            if (!field.equals("createdAt") && !field.equals("updatedAt")
+                    && !Objects.equals(previous.get(field), value)) {
+                changes.put(field, value);
+            }
+        });
+        return changes;
+    }
+
     private boolean isAdmin() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (principal instanceof UserDetails) {
@@ -0,0 +1,74 @@
+package com.familytree.service;
+
+import com.familytree.event.UserChangedEvent;
+import com.familytree.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of authenticated principals (id, active flag, authorities) by username.
+ * Admin changes to a user evict the entry; the TTL bounds staleness for anything else.
+ */
+@Component
+public class PrincipalCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.principalCache.maxEntries:10000}")
+    private long maxEntries;
+
+    @Value("${app.principalCache.ttlSeconds:60}")
+    private long ttlSeconds;
+
+    private LoadingCache<String, UserDetailsImpl> principals;
+
+    @PostConstruct
+    public void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(this::load);
+    }
+
+    /**
+     * Returns the principal for the username, or null if the user does not exist.
+     */
+    public UserDetailsImpl get(String username) {
+        return principals.get(username);
+    }
+
+    /**
+     * Whether the username still belongs to the user with this id and that user is active.
+     */
+    public boolean isActive(String username, Long userId) {
+        UserDetailsImpl principal = get(username);
+        return principal != null && principal.isEnabled() && principal.getId().equals(userId);
+    }
+
+    public void evict(String username) {
+        principals.invalidate(username);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.getUsername());
+    }
+
+    private UserDetailsImpl load(String username) {
+        return userRepository.findByUsername(username)
+                .map(user -> {
+                    UserDetailsImpl details = UserDetailsImpl.build(user);
+                    details.setPassword(null);
+                    return details;
+                })
+                .orElse(null);
+    }
+}
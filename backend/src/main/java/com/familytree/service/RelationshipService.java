@@ -1,19 +1,35 @@
 package com.familytree.service;
 
+import com.familytree.dto.CursorPage;
 import com.familytree.dto.RelationshipDTO;
+import com.familytree.dto.RelationshipPageRequest;
 import com.familytree.entity.Person;
 import com.familytree.entity.Relationship;
-import com.familytree.entity.User;
+import com.familytree.event.ChangeAction;
+import com.familytree.event.RelationshipChangedEvent;
+import com.familytree.repository.BulkInsertRepository;
+import com.familytree.repository.KeysetSpecifications;
 import com.familytree.repository.PersonRepository;
 import com.familytree.repository.RelationshipRepository;
-import com.familytree.repository.UserRepository;
+import com.familytree.repository.RelationshipSpecifications;
+import com.familytree.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class RelationshipService {
@@ -25,16 +41,18 @@ public class RelationshipService {
     private PersonRepository personRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private BulkInsertRepository bulkInsertRepository;
 
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private Long getCurrentUserId() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        if (principal instanceof UserDetails) {
-            String username = ((UserDetails) principal).getUsername();
-            return userRepository.findByUsername(username).map(User::getId).orElse(null);
+        if (principal instanceof UserDetailsImpl) {
+            return ((UserDetailsImpl) principal).getId();
         }
         return null;
     }
@@ -61,9 +79,73 @@ public class RelationshipService {
         auditService.logAction("RELATIONSHIP", saved.getId(), "CREATE", userId,
                 "Created relationship " + dto.getRelationshipType() + " between " + person1.getFullName() + " and "
                         + person2.getFullName());
+        publishChange(saved, ChangeAction.CREATE);
         return saved;
     }
 
+    /**
+     * Adds many relationships in one transaction: both sides of every entry are loaded with one
+     * IN query and the rows are written with a JDBC batch insert.
+     */
+    @Transactional
+    public List<Relationship> addRelationships(List<RelationshipDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new RuntimeException("Batch is empty.");
+        }
+        if (dtos.size() > PersonService.MAX_BATCH_SIZE) {
+            throw new RuntimeException("Batch exceeds the limit of " + PersonService.MAX_BATCH_SIZE
+                    + " relationships.");
+        }
+
+        Set<Long> personIds = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            RelationshipDTO dto = dtos.get(i);
+            if (dto.getPerson1Id() == null || dto.getPerson2Id() == null || dto.getRelationshipType() == null) {
+                throw new RuntimeException("Item " + i + ": person1Id, person2Id and relationshipType are required.");
+            }
+            personIds.add(dto.getPerson1Id());
+            personIds.add(dto.getPerson2Id());
+        }
+        Map<Long, Person> persons = personRepository.findAllById(personIds).stream()
+                .collect(Collectors.toMap(Person::getId, p -> p));
+
+        Long userId = getCurrentUserId();
+        LocalDateTime now = LocalDateTime.now();
+        List<Relationship> relationships = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            RelationshipDTO dto = dtos.get(i);
+            Person person1 = persons.get(dto.getPerson1Id());
+            Person person2 = persons.get(dto.getPerson2Id());
+            if (person1 == null || person2 == null) {
+                throw new RuntimeException("Item " + i + ": person "
+                        + (person1 == null ? dto.getPerson1Id() : dto.getPerson2Id()) + " not found.");
+            }
+
+            Relationship relationship = new Relationship();
+            relationship.setPerson1(person1);
+            relationship.setPerson2(person2);
+            relationship.setRelationshipType(dto.getRelationshipType());
+            relationship.setStartDate(dto.getStartDate());
+            relationship.setEndDate(dto.getEndDate());
+            relationship.setCreatedBy(userId);
+            relationship.setUpdatedBy(userId);
+            relationship.setCreatedAt(now);
+            relationship.setUpdatedAt(now);
+            relationships.add(relationship);
+        }
+
+        bulkInsertRepository.insertRelationships(relationships);
+
+        for (Relationship relationship : relationships) {
+            auditService.logAction("RELATIONSHIP", relationship.getId(), "CREATE", userId,
+                    "Created relationship " + relationship.getRelationshipType() + " between "
+                            + relationship.getPerson1().getFullName() + " and "
+                            + relationship.getPerson2().getFullName());
+            publishChange(relationship, ChangeAction.CREATE);
+        }
+        return relationships;
+    }
+
     @Transactional
     public void deleteRelationship(Long id) {
         Relationship relationship = relationshipRepository.findById(id)
@@ -76,6 +158,7 @@ public class RelationshipService {
 
         auditService.logAction("RELATIONSHIP", id, "DELETE", userId, "Deleted relationship with ID: " + id);
         relationshipRepository.deleteById(id);
+        publishChange(relationship, ChangeAction.DELETE);
     }
 
     public List<Relationship> getRelationshipsForPerson(Long personId) {
@@ -88,6 +171,40 @@ public class RelationshipService {
         return relationshipRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<Relationship> getRelationshipPage(RelationshipPageRequest request) {
+        int size = Math.max(1, Math.min(request.getSize() != null ? request.getSize() : PersonService.DEFAULT_PAGE_SIZE,
+                PersonService.MAX_PAGE_SIZE));
+
+        Specification<Relationship> spec = Specification.where(null);
+        if (request.getPersonId() != null) {
+            spec = spec.and(RelationshipSpecifications.involves(request.getPersonId()));
+        }
+        if (request.getRelationshipType() != null) {
+            spec = spec.and(RelationshipSpecifications.hasType(request.getRelationshipType()));
+        }
+        if (StringUtils.hasText(request.getCursor())) {
+            spec = spec.and(KeysetSpecifications.afterId(KeysetCursor.decode(request.getCursor()).getId()));
+        }
+
+        List<Relationship> rows = relationshipRepository.findBy(spec,
+                query -> query.sortBy(Sort.by("id")).limit(size + 1).all());
+
+        boolean hasMore = rows.size() > size;
+        List<Relationship> items = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        String nextCursor = hasMore ? KeysetCursor.encode(items.get(items.size() - 1).getId(), null) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private void publishChange(Relationship relationship, ChangeAction action) {
+        eventPublisher.publishEvent(new RelationshipChangedEvent(
+                relationship.getId(),
+                relationship.getPerson1().getId(),
+                relationship.getPerson2().getId(),
+                relationship.getRelationshipType(),
+                action));
+    }
+
     private boolean isAdmin() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (principal instanceof UserDetails) {
@@ -0,0 +1,195 @@
+package com.familytree.service;
+
+import com.familytree.dto.PersonView;
+import com.familytree.dto.RelationshipView;
+import com.familytree.dto.SyncResponseDTO;
+import com.familytree.dto.TombstoneDTO;
+import com.familytree.entity.Person;
+import com.familytree.entity.Relationship;
+import com.familytree.entity.Tombstone;
+import com.familytree.event.ChangeAction;
+import com.familytree.event.PersonChangedEvent;
+import com.familytree.event.RelationshipChangedEvent;
+import com.familytree.repository.KeysetSpecifications;
+import com.familytree.repository.PersonRepository;
+import com.familytree.repository.RelationshipRepository;
+import com.familytree.repository.TombstoneRepository;
+import com.familytree.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Delta sync: persons and relationships changed since a token, plus tombstones for deleted ones.
+ * The token holds an (updatedAt, id) keyset position for each of the three streams. Once a stream
+ * is exhausted its position is set back to "now minus the commit window" rather than its last row,
+ * because a row stamped before that position may commit after it; such late rows are picked up on
+ * the next sync at the cost of resending the last window's rows, which clients upsert anyway.
+ * Writers whose transactions outlast the window (GEDCOM import) leave a resync marker instead;
+ * tokens carry the id of the newest marker they have seen, and any newer marker means the client
+ * must resync fully. Imports run one at a time, so marker ids grow in commit order.
+ */
+@Service
+public class SyncService {
+
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 2000;
+    private static final Duration PRUNE_INTERVAL = Duration.ofHours(1);
+    private static final String RESYNC_MARKER = "RESYNC";
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private RelationshipRepository relationshipRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Value("${app.sync.commitWindowSeconds:60}")
+    private long commitWindowSeconds;
+
+    @Value("${app.sync.tombstoneRetentionDays:90}")
+    private long tombstoneRetentionDays;
+
+    private final AtomicLong lastPrune = new AtomicLong();
+
+    private record Position(LocalDateTime time, long id) {
+    }
+
+    private record Changes<T>(List<T> rows, String nextCursor, boolean truncated) {
+    }
+
+    // Plain listeners run inside the deleting transaction, so a tombstone exists exactly when the row is gone
+    @EventListener
+    public void onPersonChanged(PersonChangedEvent event) {
+        if (event.getAction() == ChangeAction.DELETE) {
+            recordDeletion("PERSON", event.getPersonId());
+        }
+    }
+
+    @EventListener
+    public void onRelationshipChanged(RelationshipChangedEvent event) {
+        if (event.getAction() == ChangeAction.DELETE) {
+            recordDeletion("RELATIONSHIP", event.getRelationshipId());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public SyncResponseDTO changesSince(String token, Integer limit) {
+        int size = Math.max(1, Math.min(limit != null ? limit : DEFAULT_LIMIT, MAX_LIMIT));
+        LocalDateTime settled = LocalDateTime.now().minusSeconds(commitWindowSeconds);
+
+        // Read before the rows: a marker committed after this point reaches the client next time
+        long latestMarker = Optional.ofNullable(tombstoneRepository.findLatestId(RESYNC_MARKER)).orElse(0L);
+
+        Position personsFrom;
+        Position relationshipsFrom;
+        Position deletionsFrom;
+        if (StringUtils.hasText(token)) {
+            String[] parts = token.split("\\.");
+            if (parts.length == 3) {
+                // Issued before tokens carried a marker id
+                return new SyncResponseDTO(List.of(), List.of(), List.of(), null, false, true);
+            }
+            if (parts.length != 4) {
+                throw new RuntimeException("Invalid sync token");
+            }
+            personsFrom = decode(parts[0]);
+            relationshipsFrom = decode(parts[1]);
+            deletionsFrom = decode(parts[2]);
+            long markerSeen;
+            try {
+                markerSeen = Long.parseLong(parts[3]);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid sync token", e);
+            }
+            if (deletionsFrom.time() == null
+                    || deletionsFrom.time().isBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays))
+                    || latestMarker > markerSeen) {
+                return new SyncResponseDTO(List.of(), List.of(), List.of(), null, false, true);
+            }
+        } else {
+            // A first sync takes every row, but only deletions that happen while it pages through them
+            personsFrom = new Position(null, 0);
+            relationshipsFrom = personsFrom;
+            deletionsFrom = new Position(settled, 0);
+        }
+
+        Changes<Person> persons = read(personRepository, "updatedAt", personsFrom, size, settled,
+                Person::getUpdatedAt, Person::getId);
+        Changes<Relationship> relationships = read(relationshipRepository, "updatedAt", relationshipsFrom, size,
+                settled, Relationship::getUpdatedAt, Relationship::getId);
+        Changes<Tombstone> deletions = read(tombstoneRepository, "deletedAt", deletionsFrom, size, settled,
+                Tombstone::getDeletedAt, Tombstone::getId);
+
+        return new SyncResponseDTO(
+                persons.rows().stream().map(PersonView::from).toList(),
+                relationships.rows().stream().map(RelationshipView::from).toList(),
+                deletions.rows().stream()
+                        .filter(t -> !RESYNC_MARKER.equals(t.getEntityName()))
+                        .map(t -> new TombstoneDTO(t.getEntityName(), t.getEntityId(), t.getDeletedAt()))
+                        .toList(),
+                persons.nextCursor() + "." + relationships.nextCursor() + "." + deletions.nextCursor() + "."
+                        + latestMarker,
+                persons.truncated() || relationships.truncated() || deletions.truncated(),
+                false);
+    }
+
+    /**
+     * Invalidates every token issued before the calling transaction commits. For bulk writes that
+     * stamp their rows when they start, which may be long before the rows become visible; call it
+     * inside that transaction.
+     */
+    @Transactional
+    public void requireFullResync() {
+        tombstoneRepository.save(new Tombstone(null, RESYNC_MARKER, 0L, LocalDateTime.now()));
+    }
+
+    private <T> Changes<T> read(JpaSpecificationExecutor<T> repository, String attribute, Position from,
+            int size, LocalDateTime settled, Function<T, LocalDateTime> time, Function<T, Long> id) {
+        List<T> rows = repository.findBy(KeysetSpecifications.after(attribute, from.time(), from.id(), false),
+                query -> query.sortBy(Sort.by(attribute, "id")).limit(size + 1).all());
+        if (rows.size() > size) {
+            List<T> page = new ArrayList<>(rows.subList(0, size));
+            T last = page.get(size - 1);
+            return new Changes<>(page, KeysetCursor.encode(id.apply(last), time.apply(last)), true);
+        }
+        return new Changes<>(rows, KeysetCursor.encode(0L, settled), false);
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            return new Position(position.getValue() != null ? LocalDateTime.parse(position.getValue()) : null,
+                    position.getId());
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid sync token", e);
+        }
+    }
+
+    private void recordDeletion(String entityName, Long entityId) {
+        LocalDateTime now = LocalDateTime.now();
+        tombstoneRepository.save(new Tombstone(null, entityName, entityId, now));
+
+        long previous = lastPrune.get();
+        long nowMillis = System.currentTimeMillis();
+        if (nowMillis - previous >= PRUNE_INTERVAL.toMillis() && lastPrune.compareAndSet(previous, nowMillis)) {
+            // Tokens older than this are answered with fullResync instead
+            tombstoneRepository.deleteOlderThan(now.minusDays(tombstoneRetentionDays));
+        }
+    }
+}
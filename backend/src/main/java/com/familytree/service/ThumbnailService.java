@@ -0,0 +1,252 @@
+package com.familytree.service;
+
+import com.familytree.util.ThumbnailSize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates JPEG thumbnails of uploaded photos under uploads/thumbs/{size}/. Uploads queue all sizes
+ * on a small bounded pool; a size that is missing when requested is rendered on the spot. The files
+ * on disk are the cache, and concurrent requests for the same thumbnail share one render.
+ */
+@Service
+public class ThumbnailService {
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private static final float JPEG_QUALITY = 0.82f;
+    // Images above this many pixels are refused rather than decoded
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+
+    private final Path uploadsLocation = Paths.get("uploads").toAbsolutePath().normalize();
+    private final Path thumbnailsLocation = uploadsLocation.resolve("thumbs");
+
+    @Value("${app.thumbnails.threads:2}")
+    private int threads;
+
+    @Value("${app.thumbnails.queueCapacity:200}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private final Map<Path, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        // Rejected work is simply dropped: the thumbnail is rendered on first request instead
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues every size of a freshly uploaded image.
+     */
+    public void generateAsync(String fileName) {
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        getThumbnail(fileName, size);
+                    } catch (RuntimeException ex) {
+                        logger.debug("Skipped {} thumbnail for {}: {}", size, fileName, ex.getMessage());
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the thumbnail file, rendering it first if it is missing or older than the original.
+     */
+    public Path getThumbnail(String fileName, ThumbnailSize size) {
+        Path source = resolveSource(fileName);
+        Path target = thumbnailsLocation.resolve(size.pathSegment()).resolve(uploadsLocation.relativize(source));
+        if (isFresh(source, target)) {
+            return target;
+        }
+
+        CompletableFuture<Path> render = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(target, render);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            render(source, target, size.getMaxDimension());
+            render.complete(target);
+            return target;
+        } catch (RuntimeException ex) {
+            render.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(target, render);
+        }
+    }
+
+    /**
+     * Drops every derivative of an upload that has been deleted.
+     */
+    public void deleteThumbnails(String fileName) {
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            Path target = thumbnailsLocation.resolve(size.pathSegment()).resolve(fileName).normalize();
+            if (!target.startsWith(thumbnailsLocation)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(target);
+            } catch (IOException ex) {
+                logger.warn("Could not delete thumbnail {}", target, ex);
+            }
+        }
+    }
+
+    private Path resolveSource(String fileName) {
+        Path source = uploadsLocation.resolve(fileName).normalize();
+        if (!source.startsWith(uploadsLocation) || source.startsWith(thumbnailsLocation)
+                || !Files.isRegularFile(source)) {
+            throw new RuntimeException("Image not found");
+        }
+        return source;
+    }
+
+    private static boolean isFresh(Path source, Path target) {
+        try {
+            return Files.exists(target)
+                    && Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(source)) >= 0;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private void render(Path source, Path target, int maxDimension) {
+        BufferedImage image = read(source, maxDimension);
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        // JPEG has no alpha, so transparent areas are flattened onto white
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        write(thumbnail, target);
+    }
+
+    /**
+     * Decodes the image, letting the reader skip pixels so large photos never reach full size in
+     * memory; the result stays at least twice the target for a clean final downscale.
+     */
+    private static BufferedImage read(Path source, int maxDimension) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new RuntimeException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new RuntimeException("Image is too large to thumbnail");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (2 * maxDimension));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read image", ex);
+        }
+    }
+
+    private void write(BufferedImage image, Path target) {
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), "thumb-", ".part");
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not write thumbnail", ex);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ex) {
+                    logger.warn("Could not delete temporary thumbnail {}", temp, ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.familytree.service;
+
+import com.familytree.dto.TreeLayoutDTO;
+import com.familytree.dto.TreeLayoutEdgeDTO;
+import com.familytree.dto.TreeLayoutNodeDTO;
+import com.familytree.dto.TreeNodeDTO;
+import com.familytree.dto.TreeSpouseDTO;
+import com.familytree.event.PersonChangedEvent;
+import com.familytree.event.RelationshipChangedEvent;
+import com.familytree.util.TidyTreeLayout;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Turns the subtree from {@link TreeService} into card coordinates and edge routes so the browser
+ * only has to paint. Descendants are laid out as family units (a person with their spouses side by
+ * side, children grouped under the couple they belong to) and ancestors as a pedigree above the
+ * root, both with the linear-time tidy tree algorithm. Layouts are cached per (root, up, down)
+ * until a person or relationship in them changes.
+ */
+@Service
+public class TreeLayoutService {
+
+    static final double NODE_WIDTH = 120;
+    static final double NODE_HEIGHT = 90;
+    static final double SPOUSE_GAP = 20;
+    static final double SIBLING_GAP = 20;
+    static final double SUBTREE_GAP = 40;
+    static final double LEVEL_HEIGHT = 160;
+    // Height of the bracket joining a person to their second and later spouses over the cards
+    static final double REMARRIAGE_RISE = 12;
+
+    @Autowired
+    private TreeService treeService;
+
+    @Value("${app.treeLayout.cacheSize:500}")
+    private long cacheSize;
+
+    private Cache<LayoutKey, CachedLayout> layouts;
+    private long invalidations;
+
+    private record LayoutKey(long rootId, int up, int down) {
+    }
+
+    private record CachedLayout(TreeLayoutDTO layout, Set<Long> personIds, Set<Long> relationshipIds) {
+    }
+
+    // A person with the spouses drawn beside them; the unit is one node of the descendant layout
+    private record Unit(TreeNodeDTO person, List<TreeSpouseDTO> spouses) {
+    }
+
+    @PostConstruct
+    public void init() {
+        layouts = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    public TreeLayoutDTO getLayout(Long rootId, int up, int down) {
+        LayoutKey key = new LayoutKey(rootId, clampDepth(up), clampDepth(down));
+        CachedLayout cached = layouts.getIfPresent(key);
+        if (cached != null) {
+            return cached.layout();
+        }
+
+        long seen;
+        synchronized (this) {
+            seen = invalidations;
+        }
+        CachedLayout built = new Builder(key).build(treeService.getSubtree(rootId, key.up(), key.down()));
+        synchronized (this) {
+            // A change that landed while building may not be reflected in it
+            if (invalidations == seen) {
+                layouts.put(key, built);
+            }
+        }
+        return built.layout();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        invalidate(layout -> layout.personIds().contains(event.getPersonId())
+                || (event.getFatherId() != null && layout.personIds().contains(event.getFatherId()))
+                || (event.getMotherId() != null && layout.personIds().contains(event.getMotherId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRelationshipChanged(RelationshipChangedEvent event) {
+        invalidate(layout -> layout.relationshipIds().contains(event.getRelationshipId())
+                || (event.getPerson1Id() != null && layout.personIds().contains(event.getPerson1Id()))
+                || (event.getPerson2Id() != null && layout.personIds().contains(event.getPerson2Id())));
+    }
+
+    /**
+     * Drops every cached layout, for bulk changes that do not publish per-row events.
+     */
+    public void clear() {
+        invalidate(layout -> true);
+    }
+
+    private synchronized void invalidate(Predicate<CachedLayout> affected) {
+        invalidations++;
+        layouts.asMap().values().removeIf(affected);
+    }
+
+    private static int clampDepth(int depth) {
+        return Math.max(0, Math.min(depth, TreeService.MAX_DEPTH));
+    }
+
+    private static final class Builder {
+        private final LayoutKey key;
+        private final TreeLayoutDTO layout = new TreeLayoutDTO();
+        private final Map<Long, TreeLayoutNodeDTO> placed = new HashMap<>();
+        private final Set<Long> relationshipIds = new HashSet<>();
+
+        Builder(LayoutKey key) {
+            this.key = key;
+        }
+
+        CachedLayout build(TreeNodeDTO root) {
+            layout.setRootId(root.getId());
+            layout.setUp(key.up());
+            layout.setDown(key.down());
+            layout.setNodeWidth(NODE_WIDTH);
+            layout.setNodeHeight(NODE_HEIGHT);
+
+            TidyTreeLayout.Node<Unit> descendants = unitOf(root);
+            TidyTreeLayout.layout(descendants, SIBLING_GAP, SUBTREE_GAP);
+            double rootX = memberX(descendants, 0);
+            placeUnits(descendants, null);
+
+            TidyTreeLayout.Node<TreeNodeDTO> ancestors = pedigreeOf(root);
+            TidyTreeLayout.layout(ancestors, SIBLING_GAP, SUBTREE_GAP);
+            placeAncestors(ancestors, rootX);
+            linkCollapsedParents(ancestors);
+
+            normalize();
+            return new CachedLayout(layout, new HashSet<>(placed.keySet()), relationshipIds);
+        }
+
+        private TidyTreeLayout.Node<Unit> unitOf(TreeNodeDTO person) {
+            List<TreeSpouseDTO> spouses = person.getSpouses();
+            int members = 1 + spouses.size();
+            TidyTreeLayout.Node<Unit> node = new TidyTreeLayout.Node<>(new Unit(person, spouses),
+                    members * NODE_WIDTH + (members - 1) * SPOUSE_GAP);
+
+            // Children sit under the couple they come from, in spouse order, then by birth
+            List<TreeNodeDTO> children = new ArrayList<>(person.getChildren());
+            children.sort(Comparator.<TreeNodeDTO>comparingInt(child -> spouseIndex(person, child))
+                    .thenComparing(TreeNodeDTO::getDateOfBirth, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+                    .thenComparing(TreeNodeDTO::getId));
+            for (TreeNodeDTO child : children) {
+                node.addChild(unitOf(child));
+            }
+            return node;
+        }
+
+        /**
+         * Position of the child's other parent among the person's spouses; unknown comes last.
+         */
+        private static int spouseIndex(TreeNodeDTO person, TreeNodeDTO child) {
+            Long otherParent = person.getId().equals(child.getFatherId()) ? child.getMotherId() : child.getFatherId();
+            List<TreeSpouseDTO> spouses = person.getSpouses();
+            for (int i = 0; i < spouses.size(); i++) {
+                if (spouses.get(i).getPerson().getId().equals(otherParent)) {
+                    return i;
+                }
+            }
+            return spouses.size();
+        }
+
+        private static double memberX(TidyTreeLayout.Node<Unit> unit, int member) {
+            return unit.getX() - unit.getWidth() / 2 + NODE_WIDTH / 2 + member * (NODE_WIDTH + SPOUSE_GAP);
+        }
+
+        private void placeUnits(TidyTreeLayout.Node<Unit> node, TidyTreeLayout.Node<Unit> parentUnit) {
+            Unit unit = node.getPayload();
+            int generation = node.getDepth();
+            double y = generation * LEVEL_HEIGHT;
+            double personX = memberX(node, 0);
+            place(unit.person(), personX, y, generation);
+
+            List<TreeSpouseDTO> spouses = unit.spouses();
+            for (int i = 0; i < spouses.size(); i++) {
+                TreeSpouseDTO spouse = spouses.get(i);
+                double spouseX = memberX(node, i + 1);
+                place(spouse.getPerson(), spouseX, y, generation);
+                relationshipIds.add(spouse.getRelationshipId());
+                List<double[]> points = i == 0
+                        ? List.of(point(personX + NODE_WIDTH / 2, y), point(spouseX - NODE_WIDTH / 2, y))
+                        : List.of(point(personX, y - NODE_HEIGHT / 2),
+                                point(personX, y - NODE_HEIGHT / 2 - REMARRIAGE_RISE),
+                                point(spouseX, y - NODE_HEIGHT / 2 - REMARRIAGE_RISE),
+                                point(spouseX, y - NODE_HEIGHT / 2));
+                layout.getEdges().add(new TreeLayoutEdgeDTO("SPOUSE", unit.person().getId(),
+                        spouse.getPerson().getId(), spouse.getRelationshipId(), points));
+            }
+
+            if (parentUnit != null) {
+                TreeNodeDTO parent = parentUnit.getPayload().person();
+                int spouse = spouseIndex(parent, unit.person());
+                double parentY = (generation - 1) * LEVEL_HEIGHT;
+                double anchorX = memberX(parentUnit, 0);
+                double anchorY = parentY + NODE_HEIGHT / 2;
+                if (spouse < parentUnit.getPayload().spouses().size()) {
+                    anchorX = (anchorX + memberX(parentUnit, spouse + 1)) / 2;
+                    // The first couple's line runs between the cards; start the drop from it
+                    if (spouse == 0) {
+                        anchorY = parentY;
+                    }
+                }
+                layout.getEdges().add(new TreeLayoutEdgeDTO("PARENT", parent.getId(), unit.person().getId(), null,
+                        drop(anchorX, anchorY, parentY, personX, y)));
+            }
+
+            for (TidyTreeLayout.Node<Unit> child : node.getChildren()) {
+                placeUnits(child, node);
+            }
+        }
+
+        private TidyTreeLayout.Node<TreeNodeDTO> pedigreeOf(TreeNodeDTO person) {
+            TidyTreeLayout.Node<TreeNodeDTO> node = new TidyTreeLayout.Node<>(person, NODE_WIDTH);
+            if (person.getFather() != null) {
+                node.addChild(pedigreeOf(person.getFather()));
+            }
+            if (person.getMother() != null) {
+                node.addChild(pedigreeOf(person.getMother()));
+            }
+            return node;
+        }
+
+        private void placeAncestors(TidyTreeLayout.Node<TreeNodeDTO> node, double rootX) {
+            TreeNodeDTO person = node.getPayload();
+            double x = rootX + node.getX();
+            double y = -node.getDepth() * LEVEL_HEIGHT;
+            if (node.getDepth() > 0) {
+                place(person, x, y, -node.getDepth());
+            }
+            for (TidyTreeLayout.Node<TreeNodeDTO> parent : node.getChildren()) {
+                double parentX = rootX + parent.getX();
+                double parentY = y - LEVEL_HEIGHT;
+                layout.getEdges().add(new TreeLayoutEdgeDTO("PARENT", parent.getPayload().getId(), person.getId(),
+                        null, drop(parentX, parentY + NODE_HEIGHT / 2, parentY, x, y)));
+                placeAncestors(parent, rootX);
+            }
+        }
+
+        /**
+         * Pedigree collapse: an ancestor reached through several lines is drawn once, so the other
+         * lines get an edge to that card instead of a second copy.
+         */
+        private void linkCollapsedParents(TidyTreeLayout.Node<TreeNodeDTO> node) {
+            TreeNodeDTO person = node.getPayload();
+            TreeLayoutNodeDTO card = placed.get(person.getId());
+            linkCollapsedParent(person.getFather(), person.getFatherId(), person, card);
+            linkCollapsedParent(person.getMother(), person.getMotherId(), person, card);
+            for (TidyTreeLayout.Node<TreeNodeDTO> parent : node.getChildren()) {
+                linkCollapsedParents(parent);
+            }
+        }
+
+        private void linkCollapsedParent(TreeNodeDTO nested, Long parentId, TreeNodeDTO person,
+                TreeLayoutNodeDTO card) {
+            if (nested != null || parentId == null) {
+                return;
+            }
+            TreeLayoutNodeDTO parent = placed.get(parentId);
+            if (parent == null || parent.getGeneration() >= card.getGeneration()) {
+                return;
+            }
+            layout.getEdges().add(new TreeLayoutEdgeDTO("PARENT", parentId, person.getId(), null,
+                    drop(parent.getX(), parent.getY() + NODE_HEIGHT / 2, card.getY() - LEVEL_HEIGHT,
+                            card.getX(), card.getY())));
+        }
+
+        /**
+         * Orthogonal route from an anchor under the parent row down to the top of a child card.
+         */
+        private static List<double[]> drop(double fromX, double fromY, double parentRowY, double toX, double toY) {
+            double busY = parentRowY + NODE_HEIGHT / 2 + (LEVEL_HEIGHT - NODE_HEIGHT) / 2;
+            return List.of(point(fromX, fromY), point(fromX, busY), point(toX, busY),
+                    point(toX, toY - NODE_HEIGHT / 2));
+        }
+
+        private static double[] point(double x, double y) {
+            return new double[]{x, y};
+        }
+
+        private void place(TreeNodeDTO person, double x, double y, int generation) {
+            TreeLayoutNodeDTO card = new TreeLayoutNodeDTO();
+            card.setPersonId(person.getId());
+            card.setFullName(person.getFullName());
+            card.setGender(person.getGender());
+            card.setDateOfBirth(person.getDateOfBirth());
+            card.setDateOfDeath(person.getDateOfDeath());
+            card.setThumbnailUrl(person.getThumbnailUrl());
+            card.setX(x);
+            card.setY(y);
+            card.setGeneration(generation);
+            if (placed.putIfAbsent(person.getId(), card) != null) {
+                card.setRepeated(true);
+            }
+            layout.getNodes().add(card);
+        }
+
+        /**
+         * Moves the drawing so its top-left corner is at 0,0.
+         */
+        private void normalize() {
+            double minX = Double.MAX_VALUE;
+            double minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE;
+            double maxY = -Double.MAX_VALUE;
+            for (TreeLayoutNodeDTO card : layout.getNodes()) {
+                minX = Math.min(minX, card.getX() - NODE_WIDTH / 2);
+                maxX = Math.max(maxX, card.getX() + NODE_WIDTH / 2);
+                minY = Math.min(minY, card.getY() - NODE_HEIGHT / 2);
+                maxY = Math.max(maxY, card.getY() + NODE_HEIGHT / 2);
+            }
+            for (TreeLayoutEdgeDTO edge : layout.getEdges()) {
+                for (double[] point : edge.getPoints()) {
+                    minY = Math.min(minY, point[1]);
+                }
+            }
+            for (TreeLayoutNodeDTO card : layout.getNodes()) {
+                card.setX(card.getX() - minX);
+                card.setY(card.getY() - minY);
+            }
+            for (TreeLayoutEdgeDTO edge : layout.getEdges()) {
+                for (double[] point : edge.getPoints()) {
+                    point[0] -= minX;
+                    point[1] -= minY;
+                }
+            }
+            layout.setWidth(maxX - minX);
+            layout.setHeight(maxY - minY);
+        }
+    }
+}
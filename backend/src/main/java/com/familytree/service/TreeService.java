@@ -0,0 +1,212 @@
+package com.familytree.service;
+
+import com.familytree.dto.TreeNodeDTO;
+import com.familytree.dto.TreeSpouseDTO;
+import com.familytree.entity.Person;
+import com.familytree.entity.Relationship;
+import com.familytree.repository.PersonRepository;
+import com.familytree.repository.RelationshipRepository;
+import com.familytree.util.ThumbnailSize;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class TreeService {
+
+    public static final int MAX_DEPTH = 10;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private RelationshipRepository relationshipRepository;
+
+    @Autowired
+    private GenealogyGraphService genealogyGraphService;
+
+    /**
+     * Builds the subtree around a person: up to {@code up} generations of ancestors and
+     * {@code down} generations of descendants with their spouses. The shape is walked on the
+     * in-memory graph index; the rows it touches are then fetched with one IN query per table.
+     */
+    @Transactional(readOnly = true)
+    public TreeNodeDTO getSubtree(Long rootId, int up, int down) {
+        TreeShape shape = genealogyGraphService.read(
+                graph -> collectShape(graph, rootId, clampDepth(up), clampDepth(down)));
+        if (shape == null) {
+            throw new RuntimeException("Person not found");
+        }
+
+        Map<Long, Person> persons = new HashMap<>();
+        for (Person person : personRepository.findAllById(shape.personIds)) {
+            persons.put(person.getId(), person);
+        }
+        Map<Long, Relationship> relationships = new HashMap<>();
+        for (Relationship relationship : relationshipRepository.findAllById(shape.relationshipIds)) {
+            relationships.put(relationship.getId(), relationship);
+        }
+
+        Person root = persons.get(rootId);
+        if (root == null) {
+            throw new RuntimeException("Person not found");
+        }
+        TreeNodeDTO rootNode = toNode(root);
+        attachAncestors(rootNode, shape, persons);
+        attachDescendants(rootNode, shape, persons, relationships);
+        return rootNode;
+    }
+
+    private TreeShape collectShape(GenealogyGraphService.View graph, Long rootId, int up, int down) {
+        int root = graph.nodeOf(rootId);
+        if (root == GenealogyGraphService.NONE) {
+            return null;
+        }
+        TreeShape shape = new TreeShape();
+        shape.personIds.add(rootId);
+
+        // An ancestor reachable through several branches (pedigree collapse) is nested once;
+        // the other branches keep only the fatherId/motherId reference.
+        Set<Long> seen = new HashSet<>();
+        seen.add(rootId);
+        List<Integer> frontier = List.of(root);
+        for (int generation = 0; generation < up && !frontier.isEmpty(); generation++) {
+            List<Integer> next = new ArrayList<>();
+            for (int node : frontier) {
+                long fatherId = visitParent(graph, graph.father(node), seen, next, shape);
+                long motherId = visitParent(graph, graph.mother(node), seen, next, shape);
+                if (fatherId != 0 || motherId != 0) {
+                    shape.nestedParents.put(graph.personId(node), new long[]{fatherId, motherId});
+                }
+            }
+            frontier = next;
+        }
+
+        seen.clear();
+        seen.add(rootId);
+        frontier = List.of(root);
+        for (int generation = 0; !frontier.isEmpty(); generation++) {
+            for (int node : frontier) {
+                for (int k = graph.spousesStart(node); k < graph.spousesEnd(node); k++) {
+                    long relationshipId = graph.relationshipId(k);
+                    shape.spouseRelationships.computeIfAbsent(graph.personId(node), id -> new ArrayList<>())
+                            .add(relationshipId);
+                    shape.relationshipIds.add(relationshipId);
+                    shape.personIds.add(graph.personId(graph.spouse(k)));
+                }
+            }
+            if (generation == down) {
+                break;
+            }
+
+            List<Integer> next = new ArrayList<>();
+            for (int node : frontier) {
+                for (int k = graph.childrenStart(node); k < graph.childrenEnd(node); k++) {
+                    int child = graph.child(k);
+                    long childId = graph.personId(child);
+                    if (seen.add(childId)) {
+                        shape.children.computeIfAbsent(graph.personId(node), id -> new ArrayList<>()).add(childId);
+                        shape.personIds.add(childId);
+                        next.add(child);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return shape;
+    }
+
+    private long visitParent(GenealogyGraphService.View graph, int parent, Set<Long> seen,
+                             List<Integer> next, TreeShape shape) {
+        if (parent == GenealogyGraphService.NONE) {
+            return 0;
+        }
+        long parentId = graph.personId(parent);
+        if (!seen.add(parentId)) {
+            return 0;
+        }
+        shape.personIds.add(parentId);
+        next.add(parent);
+        return parentId;
+    }
+
+    private void attachAncestors(TreeNodeDTO node, TreeShape shape, Map<Long, Person> persons) {
+        long[] parents = shape.nestedParents.get(node.getId());
+        if (parents == null) {
+            return;
+        }
+        Person father = persons.get(parents[0]);
+        if (father != null) {
+            node.setFather(toNode(father));
+            attachAncestors(node.getFather(), shape, persons);
+        }
+        Person mother = persons.get(parents[1]);
+        if (mother != null) {
+            node.setMother(toNode(mother));
+            attachAncestors(node.getMother(), shape, persons);
+        }
+    }
+
+    private void attachDescendants(TreeNodeDTO node, TreeShape shape, Map<Long, Person> persons,
+                                   Map<Long, Relationship> relationships) {
+        for (Long relationshipId : shape.spouseRelationships.getOrDefault(node.getId(), List.of())) {
+            Relationship relationship = relationships.get(relationshipId);
+            if (relationship != null) {
+                Person spouse = relationship.getPerson1().getId().equals(node.getId())
+                        ? relationship.getPerson2() : relationship.getPerson1();
+                node.getSpouses().add(toSpouse(relationship, spouse));
+            }
+        }
+        for (Long childId : shape.children.getOrDefault(node.getId(), List.of())) {
+            Person child = persons.get(childId);
+            if (child != null) {
+                TreeNodeDTO childNode = toNode(child);
+                node.getChildren().add(childNode);
+                attachDescendants(childNode, shape, persons, relationships);
+            }
+        }
+    }
+
+    private TreeSpouseDTO toSpouse(Relationship relationship, Person spouse) {
+        return new TreeSpouseDTO(
+                relationship.getId(),
+                relationship.getRelationshipType(),
+                relationship.getStartDate(),
+                relationship.getEndDate(),
+                toNode(spouse));
+    }
+
+    private TreeNodeDTO toNode(Person person) {
+        TreeNodeDTO node = new TreeNodeDTO();
+        node.setId(person.getId());
+        node.setFullName(person.getFullName());
+        node.setGender(person.getGender());
+        node.setDateOfBirth(person.getDateOfBirth());
+        node.setDateOfDeath(person.getDateOfDeath());
+        node.setIsAlive(person.getIsAlive());
+        node.setImageUrl(person.getImageUrl());
+        node.setThumbnailUrl(ThumbnailSize.SMALL.urlFor(person.getImageUrl()));
+        node.setFatherId(person.getFatherId());
+        node.setMotherId(person.getMotherId());
+        return node;
+    }
+
+    private int clampDepth(int depth) {
+        return Math.max(0, Math.min(depth, MAX_DEPTH));
+    }
+
+    private static class TreeShape {
+        private final Set<Long> personIds = new HashSet<>();
+        private final Set<Long> relationshipIds = new HashSet<>();
+        private final Map<Long, long[]> nestedParents = new HashMap<>();
+        private final Map<Long, List<Long>> children = new HashMap<>();
+        private final Map<Long, List<Long>> spouseRelationships = new HashMap<>();
+    }
+}
@@ -0,0 +1,75 @@
+package com.familytree.util;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Conversion between GEDCOM dates ("12 JAN 1900", "ABT 1900", "BET 1900 AND 1910") and
+ * LocalDate. Partial and approximate dates resolve to their earliest day.
+ */
+public final class GedcomDates {
+    private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN",
+            "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+
+    private GedcomDates() {
+    }
+
+    public static LocalDate parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] tokens = value.trim().toUpperCase(Locale.ROOT).split("\\s+");
+        int start = 0;
+        while (start < tokens.length && isQualifier(tokens[start])) {
+            start++;
+        }
+        int end = start;
+        while (end < tokens.length && !tokens[end].equals("AND") && !tokens[end].equals("TO")) {
+            end++;
+        }
+        try {
+            switch (end - start) {
+                case 1:
+                    return LocalDate.of(year(tokens[start]), 1, 1);
+                case 2:
+                    return LocalDate.of(year(tokens[start + 1]), month(tokens[start]), 1);
+                case 3:
+                    return LocalDate.of(year(tokens[start + 2]), month(tokens[start + 1]),
+                            Integer.parseInt(tokens[start]));
+                default:
+                    return null;
+            }
+        } catch (DateTimeException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static String format(LocalDate date) {
+        return date.getDayOfMonth() + " " + MONTHS[date.getMonthValue() - 1] + " " + date.getYear();
+    }
+
+    private static boolean isQualifier(String token) {
+        switch (token) {
+            case "ABT": case "CAL": case "EST": case "BEF": case "AFT": case "BET": case "FROM": case "INT":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static int month(String token) {
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (MONTHS[i].equals(token)) {
+                return i + 1;
+            }
+        }
+        throw new IllegalArgumentException("Unknown month " + token);
+    }
+
+    // Dual years such as "1700/01" keep the first year
+    private static int year(String token) {
+        int slash = token.indexOf('/');
+        return Integer.parseInt(slash > 0 ? token.substring(0, slash) : token);
+    }
+}
@@ -0,0 +1,127 @@
+package com.familytree.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Streaming GEDCOM reader that returns one level-0 record at a time, so only the current record
+ * is held in memory. Input is read as UTF-8; CONC/CONT lines are folded into their parent value
+ * and malformed lines are skipped.
+ */
+public class GedcomReader {
+    private final BufferedReader reader;
+    private GedcomRecord pending;
+    private long lineNumber;
+    private long skippedLines;
+
+    public GedcomReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    /**
+     * Returns the next level-0 record with its sub-structures, or null at end of input.
+     */
+    public GedcomRecord next() throws IOException {
+        Deque<GedcomRecord> stack = new ArrayDeque<>();
+        GedcomRecord root = null;
+        while (true) {
+            GedcomRecord line = pending != null ? pending : readLine();
+            pending = null;
+            if (line == null) {
+                return root;
+            }
+            if (line.getLevel() == 0) {
+                if (root != null) {
+                    pending = line;
+                    return root;
+                }
+                root = line;
+                stack.push(line);
+                continue;
+            }
+            while (!stack.isEmpty() && stack.peek().getLevel() >= line.getLevel()) {
+                stack.pop();
+            }
+            if (stack.isEmpty()) {
+                skippedLines++;
+                continue;
+            }
+            GedcomRecord parent = stack.peek();
+            if ("CONC".equals(line.getTag())) {
+                parent.append(line.getValue() != null ? line.getValue() : "");
+            } else if ("CONT".equals(line.getTag())) {
+                parent.append("\n" + (line.getValue() != null ? line.getValue() : ""));
+            } else {
+                parent.getChildren().add(line);
+                stack.push(line);
+            }
+        }
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public long getSkippedLines() {
+        return skippedLines;
+    }
+
+    private GedcomRecord readLine() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            GedcomRecord record = parseLine(line);
+            if (record != null) {
+                return record;
+            }
+            if (!line.isBlank()) {
+                skippedLines++;
+            }
+        }
+        return null;
+    }
+
+    // "level [@xref@] TAG [value]"
+    private GedcomRecord parseLine(String line) {
+        int pos = 0;
+        int length = line.length();
+        while (pos < length && (Character.isWhitespace(line.charAt(pos)) || line.charAt(pos) == '\uFEFF')) {
+            pos++;
+        }
+        int levelStart = pos;
+        while (pos < length && Character.isDigit(line.charAt(pos))) {
+            pos++;
+        }
+        if (pos == levelStart || pos - levelStart > 2 || pos >= length || line.charAt(pos) != ' ') {
+            return null;
+        }
+        int level = Integer.parseInt(line.substring(levelStart, pos));
+        pos++;
+
+        String xref = null;
+        if (pos < length && line.charAt(pos) == '@') {
+            int end = line.indexOf('@', pos + 1);
+            if (end < 0) {
+                return null;
+            }
+            xref = line.substring(pos, end + 1);
+            pos = end + 1;
+            while (pos < length && line.charAt(pos) == ' ') {
+                pos++;
+            }
+        }
+
+        int tagEnd = line.indexOf(' ', pos);
+        String tag = tagEnd < 0 ? line.substring(pos) : line.substring(pos, tagEnd);
+        if (tag.isEmpty()) {
+            return null;
+        }
+        String value = tagEnd < 0 || tagEnd + 1 >= length ? null : line.substring(tagEnd + 1);
+        return new GedcomRecord(level, xref, tag, value);
+    }
+}
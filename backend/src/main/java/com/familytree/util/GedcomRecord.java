@@ -0,0 +1,80 @@
+package com.familytree.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One GEDCOM line and its nested sub-lines, e.g. an INDI record with its NAME, SEX and BIRT
+ * structures.
+ */
+public class GedcomRecord {
+    private final int level;
+    private final String xref;
+    private final String tag;
+    private String value;
+    private final List<GedcomRecord> children = new ArrayList<>(4);
+
+    public GedcomRecord(int level, String xref, String tag, String value) {
+        this.level = level;
+        this.xref = xref;
+        this.tag = tag;
+        this.value = value;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getXref() {
+        return xref;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public List<GedcomRecord> getChildren() {
+        return children;
+    }
+
+    public GedcomRecord child(String tag) {
+        for (GedcomRecord child : children) {
+            if (child.tag.equals(tag)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    public List<GedcomRecord> children(String tag) {
+        List<GedcomRecord> result = new ArrayList<>(2);
+        for (GedcomRecord child : children) {
+            if (child.tag.equals(tag)) {
+                result.add(child);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Value of the first descendant along the tag path, e.g. {@code valueAt("BIRT", "DATE")}.
+     */
+    public String valueAt(String... path) {
+        GedcomRecord current = this;
+        for (String tag : path) {
+            current = current.child(tag);
+            if (current == null) {
+                return null;
+            }
+        }
+        return current.value;
+    }
+
+    void append(String text) {
+        value = value == null ? text : value + text;
+    }
+}
@@ -0,0 +1,75 @@
+package com.familytree.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes GEDCOM lines as UTF-8, splitting multi-line values into CONT lines and long values into
+ * CONC lines so no line exceeds the 255 character limit.
+ */
+public class GedcomWriter {
+    private static final int MAX_VALUE_LENGTH = 200;
+
+    private final Writer writer;
+
+    public GedcomWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    public void header(String source) throws IOException {
+        line(0, null, "HEAD", null);
+        line(1, null, "SOUR", source);
+        line(1, null, "GEDC", null);
+        line(2, null, "VERS", "5.5.1");
+        line(2, null, "FORM", "LINEAGE-LINKED");
+        line(1, null, "CHAR", "UTF-8");
+    }
+
+    public void trailer() throws IOException {
+        line(0, null, "TRLR", null);
+        writer.flush();
+    }
+
+    public void line(int level, String xref, String tag, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            write(level, xref, tag, null);
+            return;
+        }
+        String[] parts = value.split("\r\n|\r|\n", -1);
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            int end = Math.min(part.length(), MAX_VALUE_LENGTH);
+            if (i == 0) {
+                write(level, xref, tag, part.substring(0, end));
+            } else {
+                write(level + 1, null, "CONT", part.substring(0, end));
+            }
+            for (int start = end; start < part.length(); start += MAX_VALUE_LENGTH) {
+                write(level + 1, null, "CONC", part.substring(start, Math.min(part.length(), start + MAX_VALUE_LENGTH)));
+            }
+        }
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void write(int level, String xref, String tag, String value) throws IOException {
+        writer.write(Integer.toString(level));
+        writer.write(' ');
+        if (xref != null) {
+            writer.write(xref);
+            writer.write(' ');
+        }
+        writer.write(tag);
+        if (value != null && !value.isEmpty()) {
+            writer.write(' ');
+            writer.write(value);
+        }
+        writer.write("\r\n");
+    }
+}
@@ -0,0 +1,42 @@
+package com.familytree.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor holding the sort value and id of the last row of a page.
+ */
+public class KeysetCursor {
+    private final Long id;
+    private final String value;
+
+    private KeysetCursor(Long id, String value) {
+        this.id = id;
+        this.value = value;
+    }
+
+    public static String encode(Long id, Object value) {
+        String payload = id + ":" + (value == null ? "" : "=" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = payload.indexOf(':');
+            Long id = Long.valueOf(payload.substring(0, separator));
+            String rest = payload.substring(separator + 1);
+            return new KeysetCursor(id, rest.isEmpty() ? null : rest.substring(1));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor", e);
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,456 @@
+package com.familytree.util;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory name index. Names are split into normalized tokens; each distinct token is a term
+ * with a sorted postings list of person slots, and each slot keeps the ids of its terms. Prefix,
+ * phonetic (Double Metaphone, so Meyer/Maier/Mayer meet) and trigram typo matching all run over
+ * the term vocabulary, which is far smaller than the person table. A query then walks the
+ * postings of its most selective token best term first, scores each person from its term ids
+ * alone, and stops once no remaining term can beat the current top results or the scan budget is
+ * spent. Not thread-safe.
+ */
+public class NameSearchIndex {
+    private static final int NONE = -1;
+    private static final int MAX_QUERY_TOKENS = 8;
+    private static final int MIN_PHONETIC_LENGTH = 3;
+    private static final int MAX_SCANNED_POSTINGS = 10_000;
+    private static final int MAX_FUZZY_GRAM_TERMS = 20_000;
+    private static final double MIN_FUZZY_SIMILARITY = 0.5;
+
+    // Per-token scores in tenths; the token still being typed never earns the exact bonus
+    private static final int EXACT_SCORE = 35;
+    private static final int PREFIX_SCORE = 30;
+    private static final int PHONETIC_SCORE = 20;
+    private static final int FUZZY_SCORE = 15;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final DoubleMetaphone metaphone = new DoubleMetaphone();
+
+    // Slots: slot -> person id (0 = free slot), display name and term ids
+    private long[] ids;
+    private String[] names;
+    private int[][] slotTerms;
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private final LongIntHashMap slotIndex;
+
+    // Vocabulary: sorted for prefix ranges, by id for slots, plus phonetic-code and trigram lookups
+    private final TreeMap<String, Term> terms = new TreeMap<>();
+    private Term[] termsById = new Term[1024];
+    private int nextTermId = 1;
+    private final Map<String, Set<Term>> termsByCode = new HashMap<>();
+    private final Map<String, Set<Term>> termsByGram = new HashMap<>();
+
+    public NameSearchIndex(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        ids = new long[capacity];
+        names = new String[capacity];
+        slotTerms = new int[capacity][];
+        slotIndex = new LongIntHashMap(capacity);
+    }
+
+    public int size() {
+        return slotIndex.size();
+    }
+
+    public int termCount() {
+        return terms.size();
+    }
+
+    public void put(long id, String name) {
+        Set<String> tokens = distinctTokens(normalize(name));
+        int slot = slotIndex.get(id, NONE);
+        if (slot != NONE) {
+            names[slot] = name;
+            if (tokens.equals(tokensOf(slot))) {
+                return;
+            }
+            unlink(slot);
+        } else {
+            slot = allocate(id);
+            names[slot] = name;
+        }
+        int[] termIds = new int[tokens.size()];
+        int i = 0;
+        for (String token : tokens) {
+            Term term = terms.get(token);
+            if (term == null) {
+                term = addTerm(token);
+            }
+            term.postings.add(slot);
+            termIds[i++] = term.id;
+        }
+        slotTerms[slot] = termIds;
+    }
+
+    public void remove(long id) {
+        int slot = slotIndex.get(id, NONE);
+        if (slot == NONE) {
+            return;
+        }
+        unlink(slot);
+        slotIndex.remove(id);
+        ids[slot] = 0;
+        names[slot] = null;
+        slotTerms[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Returns up to {@code limit} persons matching every query token, best first. Per token an
+     * exact name token scores highest, then a name token it is a prefix of, then a phonetic
+     * match, then a close spelling.
+     */
+    public List<Hit> search(String query, int limit) {
+        String norm = normalize(query);
+        if (norm.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String[] tokens = norm.split(" ");
+        if (tokens.length > MAX_QUERY_TOKENS) {
+            tokens = Arrays.copyOf(tokens, MAX_QUERY_TOKENS);
+        }
+
+        TokenMatch[] matches = new TokenMatch[tokens.length];
+        int driver = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            matches[i] = match(tokens[i], i == tokens.length - 1);
+            if (matches[i].terms.isEmpty()) {
+                return List.of();
+            }
+            if (matches[i].postings < matches[driver].postings) {
+                driver = i;
+            }
+        }
+        int othersBest = 0;
+        for (int i = 0; i < matches.length; i++) {
+            if (i != driver) {
+                othersBest += matches[i].best;
+            }
+        }
+
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        int scanned = 0;
+        scan:
+        for (ScoredTerm driverTerm : matches[driver].terms) {
+            int bound = driverTerm.score + othersBest;
+            if (top.size() == limit && top.peek().score >= bound) {
+                break;
+            }
+            Postings postings = driverTerm.term.postings;
+            for (int i = 0; i < postings.size; i++) {
+                if (++scanned > MAX_SCANNED_POSTINGS) {
+                    break scan;
+                }
+                int slot = postings.slots[i];
+                int score = score(slot, matches);
+                if (score == 0 || (top.size() == limit && score <= top.peek().score) || contains(top, slot)) {
+                    continue;
+                }
+                top.add(new Candidate(slot, score, names[slot].length()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+                if (top.size() == limit && top.peek().score >= bound) {
+                    break;
+                }
+            }
+        }
+
+        List<Candidate> best = new ArrayList<>(top);
+        best.sort(WORST_FIRST.reversed());
+        List<Hit> hits = new ArrayList<>(best.size());
+        for (Candidate candidate : best) {
+            hits.add(new Hit(ids[candidate.slot], names[candidate.slot], candidate.score / 10.0));
+        }
+        return hits;
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    public record Hit(long id, String name, double score) {
+    }
+
+    private record Candidate(int slot, int score, int length) {
+    }
+
+    // Lower score, then longer name, then later slot is worse
+    private static final Comparator<Candidate> WORST_FIRST = Comparator.comparingInt(Candidate::score)
+            .thenComparing(Comparator.comparingInt(Candidate::length).reversed())
+            .thenComparing(Comparator.comparingInt(Candidate::slot).reversed());
+
+    private static boolean contains(PriorityQueue<Candidate> top, int slot) {
+        for (Candidate candidate : top) {
+            if (candidate.slot == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TokenMatch match(String token, boolean last) {
+        TokenMatch match = new TokenMatch();
+        for (Term term : terms.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+            match.add(term, term.text.length() == token.length() && !last ? EXACT_SCORE : PREFIX_SCORE);
+        }
+        if (token.length() >= MIN_PHONETIC_LENGTH) {
+            boolean hasPrefixMatch = !match.terms.isEmpty();
+            // Terms are filed under both codes; querying by the primary one keeps loose
+            // alternates (jon -> "AN") from matching unrelated names
+            for (Term term : termsByCode.getOrDefault(metaphone.doubleMetaphone(token), Set.of())) {
+                match.add(term, PHONETIC_SCORE);
+            }
+            if (!hasPrefixMatch) {
+                addFuzzyTerms(token, match);
+            }
+        }
+        // Among equally good terms, common names first
+        match.terms.sort(Comparator.comparingInt(ScoredTerm::score)
+                .thenComparingInt(scored -> scored.term.postings.size).reversed());
+        return match;
+    }
+
+    /**
+     * Adds vocabulary terms sharing enough leading-padded trigrams with the token (Dice
+     * coefficient), visiting the rarest trigrams first.
+     */
+    private void addFuzzyTerms(String token, TokenMatch match) {
+        List<Set<Term>> gramTerms = new ArrayList<>();
+        List<String> queryGrams = grams(token);
+        for (String gram : new HashSet<>(queryGrams)) {
+            Set<Term> set = termsByGram.get(gram);
+            if (set != null) {
+                gramTerms.add(set);
+            }
+        }
+        gramTerms.sort(Comparator.comparingInt(Set::size));
+        Map<Term, Integer> shared = new HashMap<>();
+        int visited = 0;
+        for (Set<Term> set : gramTerms) {
+            if (visited > 0 && visited + set.size() > MAX_FUZZY_GRAM_TERMS) {
+                break;
+            }
+            for (Term term : set) {
+                shared.merge(term, 1, Integer::sum);
+            }
+            visited += set.size();
+        }
+        int queryGramCount = queryGrams.size();
+        shared.forEach((term, count) -> {
+            double similarity = 2.0 * count / (queryGramCount + term.text.length());
+            if (similarity >= MIN_FUZZY_SIMILARITY) {
+                match.add(term, (int) Math.round(FUZZY_SCORE * similarity));
+            }
+        });
+    }
+
+    /**
+     * Sums, per query token, the best score any of the person's terms earns; 0 if some query
+     * token matches none of them.
+     */
+    private int score(int slot, TokenMatch[] matches) {
+        int[] termIds = slotTerms[slot];
+        int total = 0;
+        for (TokenMatch match : matches) {
+            int best = 0;
+            for (int termId : termIds) {
+                best = Math.max(best, match.scores.get(termId, 0));
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private int allocate(long id) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == ids.length) {
+                int capacity = ids.length + (ids.length >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                slotTerms = Arrays.copyOf(slotTerms, capacity);
+            }
+            slot = slotCount++;
+        }
+        ids[slot] = id;
+        slotIndex.put(id, slot);
+        return slot;
+    }
+
+    private Set<String> tokensOf(int slot) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (int termId : slotTerms[slot]) {
+            tokens.add(termsById[termId].text);
+        }
+        return tokens;
+    }
+
+    private void unlink(int slot) {
+        for (int termId : slotTerms[slot]) {
+            Term term = termsById[termId];
+            if (term.postings.remove(slot) && term.postings.size == 0) {
+                removeTerm(term);
+            }
+        }
+    }
+
+    private Term addTerm(String token) {
+        if (nextTermId == termsById.length) {
+            termsById = Arrays.copyOf(termsById, termsById.length * 2);
+        }
+        Term term = new Term(nextTermId++, token, token.length() >= MIN_PHONETIC_LENGTH ? codes(token) : List.of());
+        terms.put(token, term);
+        termsById[term.id] = term;
+        for (String code : term.codes) {
+            termsByCode.computeIfAbsent(code, k -> new HashSet<>()).add(term);
+        }
+        for (String gram : grams(token)) {
+            termsByGram.computeIfAbsent(gram, k -> new HashSet<>()).add(term);
+        }
+        return term;
+    }
+
+    private void removeTerm(Term term) {
+        terms.remove(term.text);
+        termsById[term.id] = null;
+        for (String code : term.codes) {
+            removeFrom(termsByCode, code, term);
+        }
+        for (String gram : grams(term.text)) {
+            removeFrom(termsByGram, gram, term);
+        }
+    }
+
+    private static void removeFrom(Map<String, Set<Term>> map, String key, Term term) {
+        Set<Term> set = map.get(key);
+        if (set != null && set.remove(term) && set.isEmpty()) {
+            map.remove(key);
+        }
+    }
+
+    private List<String> codes(String token) {
+        Set<String> codes = new LinkedHashSet<>();
+        for (String code : new String[] {
+                metaphone.doubleMetaphone(token, false), metaphone.doubleMetaphone(token, true) }) {
+            if (code != null && !code.isEmpty()) {
+                codes.add(code);
+            }
+        }
+        return new ArrayList<>(codes);
+    }
+
+    private static List<String> grams(String token) {
+        String padded = "$$" + token;
+        List<String> grams = new ArrayList<>(token.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static Set<String> distinctTokens(String norm) {
+        return norm.isEmpty() ? Set.of() : new LinkedHashSet<>(Arrays.asList(norm.split(" ")));
+    }
+
+    private static final class Term {
+        private final int id;
+        private final String text;
+        private final List<String> codes;
+        private final Postings postings = new Postings();
+
+        Term(int id, String text, List<String> codes) {
+            this.id = id;
+            this.text = text;
+            this.codes = codes;
+        }
+    }
+
+    private record ScoredTerm(Term term, int score) {
+    }
+
+    /**
+     * The vocabulary terms one query token matches, with the best score per term id.
+     */
+    private static final class TokenMatch {
+        private final List<ScoredTerm> terms = new ArrayList<>();
+        private final LongIntHashMap scores = new LongIntHashMap(64);
+        private int best;
+        private int postings;
+
+        void add(Term term, int score) {
+            if (scores.get(term.id, 0) != 0) {
+                return;
+            }
+            scores.put(term.id, score);
+            terms.add(new ScoredTerm(term, score));
+            best = Math.max(best, score);
+            postings += term.postings.size;
+        }
+    }
+
+    /**
+     * Sorted, growable list of slots. New slots are usually the highest so inserts append.
+     */
+    private static final class Postings {
+        private int[] slots = new int[2];
+        private int size;
+
+        void add(int slot) {
+            int pos = Arrays.binarySearch(slots, 0, size, slot);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size + (size >> 1) + 1);
+            }
+            System.arraycopy(slots, pos, slots, pos + 1, size - pos);
+            slots[pos] = slot;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            int pos = Arrays.binarySearch(slots, 0, size, slot);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(slots, pos + 1, slots, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
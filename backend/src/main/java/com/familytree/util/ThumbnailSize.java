@@ -0,0 +1,54 @@
+package com.familytree.util;
+
+import java.util.Locale;
+
+/**
+ * Fixed photo derivatives; each fits within a square of {@code maxDimension} pixels.
+ */
+public enum ThumbnailSize {
+    SMALL(128),
+    MEDIUM(400),
+    LARGE(1200);
+
+    private static final String UPLOADS = "/uploads/";
+    private static final String THUMBNAILS = "thumbs/";
+
+    private final int maxDimension;
+
+    ThumbnailSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    public String pathSegment() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static ThumbnailSize fromPathSegment(String segment) {
+        for (ThumbnailSize size : values()) {
+            if (size.pathSegment().equals(segment)) {
+                return size;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Derivative URL for an uploaded image, e.g. /uploads/ab/cd/x.jpg becomes
+     * /uploads/thumbs/small/ab/cd/x.jpg. Images hosted elsewhere are returned unchanged.
+     */
+    public String urlFor(String imageUrl) {
+        if (imageUrl == null) {
+            return null;
+        }
+        int index = imageUrl.indexOf(UPLOADS);
+        if (index < 0 || imageUrl.startsWith(THUMBNAILS, index + UPLOADS.length())) {
+            return imageUrl;
+        }
+        int start = index + UPLOADS.length();
+        return imageUrl.substring(0, start) + THUMBNAILS + pathSegment() + "/" + imageUrl.substring(start);
+    }
+}
@@ -0,0 +1,210 @@
+package com.familytree.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Walker's tidy tree layout in the linear-time form of Buchheim, Jünger and Leipert, extended to
+ * nodes of different widths. Parents end up centred over their children, identical subtrees are
+ * drawn identically and no two nodes on the same level overlap. Only x is computed; the level of
+ * a node is its depth.
+ */
+public final class TidyTreeLayout {
+
+    private TidyTreeLayout() {
+    }
+
+    public static final class Node<T> {
+        private final T payload;
+        private final double width;
+        private final List<Node<T>> children = new ArrayList<>();
+        private Node<T> parent;
+        private int number;
+
+        private double prelim;
+        private double mod;
+        private double change;
+        private double shift;
+        private Node<T> thread;
+        private Node<T> ancestor = this;
+
+        private double x;
+        private int depth;
+
+        public Node(T payload, double width) {
+            this.payload = payload;
+            this.width = width;
+        }
+
+        public Node<T> addChild(Node<T> child) {
+            child.parent = this;
+            child.number = children.size() + 1;
+            children.add(child);
+            return child;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public double getWidth() {
+            return width;
+        }
+
+        public List<Node<T>> getChildren() {
+            return children;
+        }
+
+        /**
+         * Centre of the node; may be negative, the root's subtree is not shifted.
+         */
+        public double getX() {
+            return x;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        private Node<T> leftSibling() {
+            return number > 1 ? parent.children.get(number - 2) : null;
+        }
+
+        private Node<T> leftmostSibling() {
+            return parent != null && number > 1 ? parent.children.get(0) : null;
+        }
+
+        private Node<T> nextLeft() {
+            return children.isEmpty() ? thread : children.get(0);
+        }
+
+        private Node<T> nextRight() {
+            return children.isEmpty() ? thread : children.get(children.size() - 1);
+        }
+    }
+
+    /**
+     * @param siblingGap horizontal space between nodes that share a parent
+     * @param subtreeGap horizontal space between neighbouring nodes of different parents
+     */
+    public static <T> void layout(Node<T> root, double siblingGap, double subtreeGap) {
+        new Walker(siblingGap, subtreeGap).firstWalk(root);
+        secondWalk(root, -root.prelim, 0);
+    }
+
+    private static final class Walker {
+        private final double siblingGap;
+        private final double subtreeGap;
+
+        Walker(double siblingGap, double subtreeGap) {
+            this.siblingGap = siblingGap;
+            this.subtreeGap = subtreeGap;
+        }
+
+        private double separation(Node<?> left, Node<?> right) {
+            return (left.width + right.width) / 2
+                    + (left.parent == right.parent ? siblingGap : subtreeGap);
+        }
+
+        <T> void firstWalk(Node<T> v) {
+            Node<T> w = v.leftSibling();
+            if (v.children.isEmpty()) {
+                v.prelim = w != null ? w.prelim + separation(w, v) : 0;
+                return;
+            }
+            Node<T> defaultAncestor = v.children.get(0);
+            for (Node<T> child : v.children) {
+                firstWalk(child);
+                defaultAncestor = apportion(child, defaultAncestor);
+            }
+            executeShifts(v);
+            double midpoint = (v.children.get(0).prelim + v.children.get(v.children.size() - 1).prelim) / 2;
+            if (w != null) {
+                v.prelim = w.prelim + separation(w, v);
+                v.mod = v.prelim - midpoint;
+            } else {
+                v.prelim = midpoint;
+            }
+        }
+
+        /**
+         * Pushes the subtree of {@code v} right until it clears every subtree to its left, walking
+         * the facing contours level by level and spreading the shift over the siblings between.
+         */
+        private <T> Node<T> apportion(Node<T> v, Node<T> defaultAncestor) {
+            Node<T> w = v.leftSibling();
+            if (w == null) {
+                return defaultAncestor;
+            }
+            Node<T> insideRight = v;
+            Node<T> outsideRight = v;
+            Node<T> insideLeft = w;
+            Node<T> outsideLeft = v.leftmostSibling();
+            double sumInsideRight = insideRight.mod;
+            double sumOutsideRight = outsideRight.mod;
+            double sumInsideLeft = insideLeft.mod;
+            double sumOutsideLeft = outsideLeft.mod;
+            while (insideLeft.nextRight() != null && insideRight.nextLeft() != null) {
+                insideLeft = insideLeft.nextRight();
+                insideRight = insideRight.nextLeft();
+                outsideLeft = outsideLeft.nextLeft();
+                outsideRight = outsideRight.nextRight();
+                outsideRight.ancestor = v;
+                double shift = (insideLeft.prelim + sumInsideLeft) - (insideRight.prelim + sumInsideRight)
+                        + separation(insideLeft, insideRight);
+                if (shift > 0) {
+                    moveSubtree(ancestor(insideLeft, v, defaultAncestor), v, shift);
+                    sumInsideRight += shift;
+                    sumOutsideRight += shift;
+                }
+                sumInsideLeft += insideLeft.mod;
+                sumInsideRight += insideRight.mod;
+                sumOutsideLeft += outsideLeft.mod;
+                sumOutsideRight += outsideRight.mod;
+            }
+            if (insideLeft.nextRight() != null && outsideRight.nextRight() == null) {
+                outsideRight.thread = insideLeft.nextRight();
+                outsideRight.mod += sumInsideLeft - sumOutsideRight;
+            }
+            if (insideRight.nextLeft() != null && outsideLeft.nextLeft() == null) {
+                outsideLeft.thread = insideRight.nextLeft();
+                outsideLeft.mod += sumInsideRight - sumOutsideLeft;
+                defaultAncestor = v;
+            }
+            return defaultAncestor;
+        }
+
+        private static <T> void moveSubtree(Node<T> left, Node<T> right, double shift) {
+            int subtrees = right.number - left.number;
+            right.change -= shift / subtrees;
+            right.shift += shift;
+            left.change += shift / subtrees;
+            right.prelim += shift;
+            right.mod += shift;
+        }
+
+        private static <T> void executeShifts(Node<T> v) {
+            double shift = 0;
+            double change = 0;
+            for (int i = v.children.size() - 1; i >= 0; i--) {
+                Node<T> child = v.children.get(i);
+                child.prelim += shift;
+                child.mod += shift;
+                change += child.change;
+                shift += child.shift + change;
+            }
+        }
+
+        private static <T> Node<T> ancestor(Node<T> insideLeft, Node<T> v, Node<T> defaultAncestor) {
+            return insideLeft.ancestor.parent == v.parent ? insideLeft.ancestor : defaultAncestor;
+        }
+    }
+
+    private static <T> void secondWalk(Node<T> v, double modSum, int depth) {
+        v.x = v.prelim + modSum;
+        v.depth = depth;
+        for (Node<T> child : v.children) {
+            secondWalk(child, modSum + v.mod, depth + 1);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+import { useNavigate } from 'react-router-dom';
+import type { TreeLayout } from '../types';
+
+interface Props {
+    layout: TreeLayout;
+}
+
+// Paints a server-computed layout: cards are absolutely positioned, edges are one SVG underneath
+export default function TreeLayoutView({ layout }: Props) {
+    const navigate = useNavigate();
+    const { nodeWidth, nodeHeight } = layout;
+
+    return (
+        <div className="relative" style={{ width: layout.width, height: layout.height }}>
+            <svg className="absolute inset-0 pointer-events-none" width={layout.width} height={layout.height}>
+                {layout.edges.map((edge, i) => (
+                    <polyline
+                        key={i}
+                        points={edge.points.map(([x, y]) => `${x},${y}`).join(' ')}
+                        fill="none"
+                        stroke="rgba(255,255,255,0.5)"
+                        strokeDasharray={edge.type === 'SPOUSE' ? '4 3' : undefined}
+                    />
+                ))}
+            </svg>
+            {layout.nodes.map((node, i) => (
+                <div
+                    key={`${node.personId}-${i}`}
+                    onClick={() => navigate(`/people/${node.personId}`)}
+                    className={`absolute border p-2.5 text-white text-[11px] rounded-[5px] bg-white/10 cursor-pointer text-center hover:bg-white/30 hover:border-white/50 ${node.personId === layout.rootId ? 'border-white/70' : 'border-white/20'} ${node.repeated ? 'opacity-60' : ''}`}
+                    style={{ left: node.x - nodeWidth / 2, top: node.y - nodeHeight / 2, width: nodeWidth, height: nodeHeight }}
+                >
+                    {node.thumbnailUrl ? (
+                        <img src={node.thumbnailUrl} alt="" loading="lazy" className="w-[40px] h-[40px] rounded-full object-cover mb-[5px] border-2 border-white/30 mx-auto" />
+                    ) : (
+                        <div className="w-[40px] h-[40px] rounded-full bg-white/20 flex items-center justify-center mx-auto mb-[5px] text-lg border-2 border-white/20">
+                            {node.fullName.charAt(0)}
+                        </div>
+                    )}
+                    <span className="block font-bold mb-[2px] truncate">{node.fullName}</span>
+                    <span className="text-[0.8em] opacity-70">{node.dateOfBirth?.split('-')[0]}</span>
+                </div>
+            ))}
+        </div>
+    );
+}
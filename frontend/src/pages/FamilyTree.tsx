@@ -1,7 +1,8 @@
 import { useEffect, useState, useRef } from 'react';
-import { useNavigate } from 'react-router-dom';
-import { personService } from '../services/api';
-import type { Person } from '../types';
+import { useNavigate, useSearchParams } from 'react-router-dom';
+import { changeService, personService, relationshipService, treeService } from '../services/api';
+import type { ChangeEvent, Person, Relationship, TreeLayout } from '../types';
+import TreeLayoutView from '../components/TreeLayoutView';
 
 interface TreeNode extends Person {
     children: TreeNode[];
@@ -10,17 +11,48 @@ interface TreeNode extends Person {
 
 export default function FamilyTree() {
     const navigate = useNavigate();
+    const [searchParams] = useSearchParams();
+    // With ?root=ID the server lays out the subtree around that person and the page only paints it
+    const rootId = Number(searchParams.get('root')) || null;
+    const [layout, setLayout] = useState<TreeLayout | null>(null);
+    const [people, setPeople] = useState<Person[]>([]);
+    const [relationships, setRelationships] = useState<Relationship[]>([]);
     const [roots, setRoots] = useState<TreeNode[]>([]);
     const [loading, setLoading] = useState(true);
     const containerRef = useRef<HTMLDivElement>(null);
 
     useEffect(() => {
         loadData();
-    }, []);
+    }, [rootId]);
+
+    useEffect(() => {
+        setRoots(buildTree(people, relationships));
+    }, [people, relationships]);
+
+    // Edits made elsewhere arrive on the change feed: the forest is patched in place, a server
+    // layout is simply fetched again (it is cached and invalidated on the server)
+    useEffect(() => {
+        let timer: ReturnType<typeof setTimeout> | undefined;
+        const close = changeService.subscribe({
+            onChange: event => {
+                if (rootId) {
+                    clearTimeout(timer);
+                    timer = setTimeout(() => loadLayout(rootId).catch(console.error), 300);
+                } else {
+                    applyChange(event);
+                }
+            },
+            onReset: () => loadData(),
+        });
+        return () => {
+            clearTimeout(timer);
+            close();
+        };
+    }, [rootId]);
 
     // Center the view when data loads
     useEffect(() => {
-        if (!loading && roots.length > 0 && containerRef.current) {
+        if (!loading && (roots.length > 0 || layout) && containerRef.current) {
             // Small timeout to ensure rendering is complete and widths are correct
             setTimeout(() => {
                 if (containerRef.current) {
@@ -30,16 +62,22 @@ export default function FamilyTree() {
                 }
             }, 100);
         }
-    }, [loading, roots]);
+    }, [loading, roots, layout]);
 
     const loadData = async () => {
+        setLoading(true);
         try {
+            if (rootId) {
+                await loadLayout(rootId);
+                return;
+            }
+            setLayout(null);
             const [peopleData, relationshipsData] = await Promise.all([
                 personService.getAll(),
-                import('../services/api').then(m => m.relationshipService.getAll())
+                relationshipService.getAll()
             ]);
-            const builtRoots = buildTree(peopleData, relationshipsData);
-            setRoots(builtRoots);
+            setPeople(peopleData);
+            setRelationships(relationshipsData);
         } catch (err) {
             console.error(err);
         } finally {
@@ -47,7 +85,45 @@ export default function FamilyTree() {
         }
     };
 
-    const buildTree = (allPeople: Person[], allRelationships: import('../types').Relationship[] = []): TreeNode[] => {
+    const loadLayout = async (id: number) => {
+        const up = Number(searchParams.get('up') ?? 3);
+        const down = Number(searchParams.get('down') ?? 3);
+        setLayout(await treeService.getLayout(id, up, down));
+    };
+
+    const applyChange = (event: ChangeEvent) => {
+        if (event.entity === 'PERSON') {
+            if (event.action === 'DELETE') {
+                setPeople(prev => prev.filter(p => p.id !== event.id));
+                setRelationships(prev => prev.filter(r => r.person1.id !== event.id && r.person2.id !== event.id));
+            } else if (!event.changes) {
+                personService.getById(event.id)
+                    .then(person => setPeople(prev => [...prev.filter(p => p.id !== event.id), person]))
+                    .catch(console.error);
+            } else {
+                const changes = event.changes as Partial<Person>;
+                setPeople(prev => prev.some(p => p.id === event.id)
+                    ? prev.map(p => p.id === event.id ? { ...p, ...changes } : p)
+                    : [...prev, { ...changes, id: event.id } as Person]);
+            }
+            return;
+        }
+        if (event.action === 'DELETE') {
+            setRelationships(prev => prev.filter(r => r.id !== event.id));
+        } else if (event.changes) {
+            // The tree only needs the two ids and the type
+            const { person1Id, person2Id, relationshipType } = event.changes as Partial<Relationship>;
+            const relationship = {
+                id: event.id,
+                person1: { id: person1Id } as Person,
+                person2: { id: person2Id } as Person,
+                relationshipType,
+            } as Relationship;
+            setRelationships(prev => [...prev.filter(r => r.id !== event.id), relationship]);
+        }
+    };
+
+    const buildTree = (allPeople: Person[], allRelationships: Relationship[] = []): TreeNode[] => {
         const relationshipMap = new Map<number, number>();
 
         allRelationships.forEach(rel => {
@@ -88,13 +164,13 @@ export default function FamilyTree() {
             const node = map.get(p.id!)!;
             let parentFound = false;
 
-            if (p.father && map.has(p.father.id!)) {
-                const fatherNode = map.get(p.father.id!)!;
-                if (!processedSpouses.has(p.father.id!)) {
+            if (p.fatherId && map.has(p.fatherId)) {
+                const fatherNode = map.get(p.fatherId)!;
+                if (!processedSpouses.has(p.fatherId)) {
                     fatherNode.children.push(node);
                     parentFound = true;
                 } else {
-                    const spouseId = relationshipMap.get(p.father.id!);
+                    const spouseId = relationshipMap.get(p.fatherId);
                     if (spouseId && map.has(spouseId)) {
                         map.get(spouseId)!.children.push(node);
                         parentFound = true;
@@ -102,13 +178,13 @@ export default function FamilyTree() {
                 }
             }
 
-            if (!parentFound && p.mother && map.has(p.mother.id!)) {
-                const motherNode = map.get(p.mother.id!)!;
-                if (!processedSpouses.has(p.mother.id!)) {
+            if (!parentFound && p.motherId && map.has(p.motherId)) {
+                const motherNode = map.get(p.motherId)!;
+                if (!processedSpouses.has(p.motherId)) {
                     motherNode.children.push(node);
                     parentFound = true;
                 } else {
-                    const spouseId = relationshipMap.get(p.mother.id!);
+                    const spouseId = relationshipMap.get(p.motherId);
                     if (spouseId && map.has(spouseId)) {
                         map.get(spouseId)!.children.push(node);
                         parentFound = true;
@@ -130,7 +206,7 @@ export default function FamilyTree() {
             className="inline-block border border-white/20 p-2.5 no-underline text-white text-[11px] rounded-[5px] transition-all duration-500 bg-white/10 backdrop-blur-[5px] w-[120px] cursor-pointer hover:bg-white/30 hover:border-white/50 hover:scale-105 hover:z-10 relative z-20"
         >
             {node.imageUrl ? (
-                <img src={node.imageUrl} alt="" className="w-[50px] h-[50px] rounded-full object-cover mb-[5px] border-2 border-white/30 mx-auto" />
+                <img src={node.thumbnailUrl ?? node.imageUrl} alt="" className="w-[50px] h-[50px] rounded-full object-cover mb-[5px] border-2 border-white/30 mx-auto" />
             ) : (
                 <div className="w-[50px] h-[50px] rounded-full bg-white/20 flex items-center justify-center mx-auto mb-[5px] text-xl border-2 border-white/20">
                     {node.fullName.charAt(0)}
@@ -197,13 +273,17 @@ export default function FamilyTree() {
                 ref={containerRef}
                 className="w-full flex-1 overflow-auto p-8 relative scroll-smooth"
             >
-                <div className="min-w-fit w-full flex justify-center absolute top-8 left-0">
-                    <div className="flex flex-col items-center">
-                        <ul className="pt-5 relative transition-all duration-500 flex justify-center">
-                            {roots.map(root => renderNode(root))}
-                        </ul>
+                {layout ? (
+                    <TreeLayoutView layout={layout} />
+                ) : (
+                    <div className="min-w-fit w-full flex justify-center absolute top-8 left-0">
+                        <div className="flex flex-col items-center">
+                            <ul className="pt-5 relative transition-all duration-500 flex justify-center">
+                                {roots.map(root => renderNode(root))}
+                            </ul>
+                        </div>
                     </div>
-                </div>
+                )}
             </div>
         </div>
     );
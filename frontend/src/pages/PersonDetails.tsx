@@ -7,6 +7,8 @@ export default function PersonDetails() {
     const { id } = useParams();
     const navigate = useNavigate();
     const [person, setPerson] = useState<Person | null>(null);
+    const [father, setFather] = useState<Person | null>(null);
+    const [mother, setMother] = useState<Person | null>(null);
     const [loading, setLoading] = useState(true);
 
     useEffect(() => {
@@ -18,6 +20,12 @@ export default function PersonDetails() {
             if (id) {
                 const data = await personService.getById(Number(id));
                 setPerson(data);
+                const [fatherData, motherData] = await Promise.all([
+                    data.fatherId ? personService.getById(data.fatherId) : Promise.resolve(null),
+                    data.motherId ? personService.getById(data.motherId) : Promise.resolve(null),
+                ]);
+                setFather(fatherData);
+                setMother(motherData);
             }
         } catch (err) {
             console.error(err);
@@ -79,6 +87,12 @@ export default function PersonDetails() {
                     </div>
 
                     <div className="flex gap-4 self-center md:self-start">
+                        <button
+                            className="px-5 py-2.5 bg-white/20 text-white rounded font-semibold cursor-pointer hover:bg-white/30 transition-colors border-0"
+                            onClick={() => navigate(`/tree?root=${id}`)}
+                        >
+                            Tree
+                        </button>
                         <button
                             className="px-5 py-2.5 bg-white/20 text-white rounded font-semibold cursor-pointer hover:bg-white/30 transition-colors border-0"
                             onClick={() => navigate(`/people/${id}/edit`)}
@@ -101,23 +115,23 @@ export default function PersonDetails() {
                         <div className="grid grid-cols-[repeat(auto-fill,minmax(200px,1fr))] gap-6">
                             <div className="flex flex-col gap-1">
                                 <label className="text-white/60 text-sm">Father</label>
-                                {person.father ? (
+                                {father ? (
                                     <span
                                         className="text-lg font-medium cursor-pointer p-2 rounded hover:bg-white/10 transition-colors -ml-2"
-                                        onClick={() => navigate(`/people/${person.father?.id}`)}
+                                        onClick={() => navigate(`/people/${father.id}`)}
                                     >
-                                        {person.father.fullName}
+                                        {father.fullName}
                                     </span>
                                 ) : <span className="text-lg font-medium text-white/40">Unknown</span>}
                             </div>
                             <div className="flex flex-col gap-1">
                                 <label className="text-white/60 text-sm">Mother</label>
-                                {person.mother ? (
+                                {mother ? (
                                     <span
                                         className="text-lg font-medium cursor-pointer p-2 rounded hover:bg-white/10 transition-colors -ml-2"
-                                        onClick={() => navigate(`/people/${person.mother?.id}`)}
+                                        onClick={() => navigate(`/people/${mother.id}`)}
                                     >
-                                        {person.mother.fullName}
+                                        {mother.fullName}
                                     </span>
                                 ) : <span className="text-lg font-medium text-white/40">Unknown</span>}
                             </div>
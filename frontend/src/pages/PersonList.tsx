@@ -52,7 +52,7 @@ export default function PersonList() {
                         onClick={() => navigate(`/people/${person.id}`)}
                     >
                         {person.imageUrl ? (
-                            <img src={person.imageUrl} alt={person.fullName} className="w-[100px] h-[100px] rounded-full object-cover mb-4 border-[3px] border-white/20 bg-black/20" />
+                            <img src={person.thumbnailUrl ?? person.imageUrl} alt={person.fullName} className="w-[100px] h-[100px] rounded-full object-cover mb-4 border-[3px] border-white/20 bg-black/20" />
                         ) : (
                             <div className="w-[100px] h-[100px] rounded-full bg-white/10 flex items-center justify-center text-4xl text-white/50 mb-4 border-[3px] border-white/20">
                                 {person.fullName.charAt(0).toUpperCase()}
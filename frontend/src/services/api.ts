@@ -1,4 +1,4 @@
-import type { AuthResponse, LoginRequest, Person, Relationship, SignupRequest } from '../types';
+import type { AuthResponse, ChangeEvent, LoginRequest, Person, PersonBatchItem, PersonBatchResult, PersonSearchResult, Relationship, SignupRequest, SyncResponse, TreeLayout } from '../types';
 
 const BASE_URL = 'http://localhost:8080/api';
 
@@ -59,10 +59,16 @@ export const authService = {
 export const personService = {
     getAll: () => request<Person[]>('/person'),
     getById: (id: number) => request<Person>(`/person/${id}`),
+    search: (q: string, limit = 10) =>
+        request<PersonSearchResult[]>(`/person/search?q=${encodeURIComponent(q)}&limit=${limit}`),
     create: (person: Person) => request<Person>('/person', {
         method: 'POST',
         body: JSON.stringify(person),
     }),
+    batch: (items: PersonBatchItem[]) => request<PersonBatchResult>('/person/batch', {
+        method: 'POST',
+        body: JSON.stringify(items),
+    }),
     update: (id: number, person: Person) => request<Person>(`/person/${id}`, {
         method: 'PUT',
         body: JSON.stringify(person),
@@ -94,11 +100,90 @@ export const relationshipService = {
         method: 'POST',
         body: JSON.stringify(data),
     }),
+    batch: (items: Partial<Relationship>[]) => request<Relationship[]>('/relationship/batch', {
+        method: 'POST',
+        body: JSON.stringify(items),
+    }),
     delete: (id: number) => request<void>(`/relationship/${id}`, {
         method: 'DELETE',
     }),
 };
 
+export const treeService = {
+    getLayout: (rootId: number, up = 2, down = 2) =>
+        request<TreeLayout>(`/tree/${rootId}/layout?up=${up}&down=${down}`),
+};
+
+export const syncService = {
+    since: (token?: string | null, limit = 500) =>
+        request<SyncResponse>(`/sync?limit=${limit}${token ? `&since=${encodeURIComponent(token)}` : ''}`),
+};
+
+export interface ChangeFeedHandlers {
+    onChange: (event: ChangeEvent) => void;
+    // The feed could not be resumed (first connect after a restart, an import, or a slow client): reload everything
+    onReset: () => void;
+}
+
+// EventSource cannot send the Authorization header, so the stream is read through fetch and reconnects
+// with Last-Event-ID to pick up where it stopped. Returns a function that closes the feed.
+export const changeService = {
+    subscribe: (handlers: ChangeFeedHandlers): (() => void) => {
+        const controller = new AbortController();
+        let lastEventId: string | null = null;
+
+        const dispatch = (block: string) => {
+            let id: string | null = null;
+            let name = 'message';
+            const data: string[] = [];
+            for (const line of block.split('\n')) {
+                if (line.startsWith(':')) continue;
+                const colon = line.indexOf(':');
+                const field = colon < 0 ? line : line.slice(0, colon);
+                const value = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '');
+                if (field === 'id') id = value;
+                else if (field === 'event') name = value;
+                else if (field === 'data') data.push(value);
+            }
+            if (id !== null) lastEventId = id;
+            if (name === 'change') handlers.onChange(JSON.parse(data.join('\n')));
+            else if (name === 'reset') handlers.onReset();
+        };
+
+        const connect = async () => {
+            while (!controller.signal.aborted) {
+                try {
+                    const token = getToken();
+                    const headers: Record<string, string> = { Accept: 'text/event-stream' };
+                    if (token) headers['Authorization'] = `Bearer ${token}`;
+                    if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+                    const response = await fetch(`${BASE_URL}/changes/stream`, { headers, signal: controller.signal });
+                    if (!response.ok || !response.body) throw new Error(`HTTP error! status: ${response.status}`);
+
+                    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+                    let buffer = '';
+                    for (;;) {
+                        const { value, done } = await reader.read();
+                        if (done) break;
+                        buffer += value.replace(/\r\n?/g, '\n');
+                        let end;
+                        while ((end = buffer.indexOf('\n\n')) >= 0) {
+                            dispatch(buffer.slice(0, end));
+                            buffer = buffer.slice(end + 2);
+                        }
+                    }
+                } catch (e) {
+                    if (controller.signal.aborted) return;
+                }
+                await new Promise(resolve => setTimeout(resolve, 3000));
+            }
+        };
+
+        connect();
+        return () => controller.abort();
+    },
+};
+
 export const adminService = {
     // Note: Endpoint expects nothing? or maybe status? Assuming just activation signal.
     activateUser: (userId: number) => request<void>(`/admin/users/${userId}/activate`, {
@@ -24,16 +24,34 @@ export interface Person {
     dateOfDeath?: string;
     isAlive: boolean;
     imageUrl?: string;
+    thumbnailUrl?: string; // Small rendition of imageUrl for avatars
     contactNumber?: string;
     email?: string;
-    father?: Person; // Recursive structure could be tricky, might just be IDs in forms
-    mother?: Person;
-    fatherId?: number; // Helper for forms
-    motherId?: number; // Helper for forms
+    fatherId?: number; // Parents are referenced by id; fetch them separately when needed
+    motherId?: number;
     createdBy?: number;
     updatedBy?: number;
     createdAt?: string;
     updatedAt?: string;
+    version?: number; // Bumped on every write; also the ETag of GET /person/{id}
+}
+
+// Batch entries without an id are created; tempId lets later entries name them as a parent
+export interface PersonBatchItem extends Person {
+    tempId?: string;
+    fatherTempId?: string;
+    motherTempId?: string;
+}
+
+export interface PersonBatchResult {
+    ids: Record<string, number>; // tempId -> assigned id
+    persons: Person[];
+}
+
+export interface PersonSearchResult {
+    id: number;
+    fullName: string;
+    score: number;
 }
 
 export type RelationshipType = 'MARRIED' | 'DIVORCED' | 'PARTNER';
@@ -61,3 +79,66 @@ export interface SignupRequest {
     password: string;
     role?: string;
 }
+
+// Server-computed tree layout: card centres and edge polylines in pixels, origin top-left
+export interface TreeLayoutNode {
+    personId: number;
+    fullName: string;
+    gender: Gender;
+    dateOfBirth?: string;
+    dateOfDeath?: string;
+    thumbnailUrl?: string;
+    x: number;
+    y: number;
+    generation: number;
+    repeated?: boolean;
+}
+
+export interface TreeLayoutEdge {
+    type: 'PARENT' | 'SPOUSE';
+    fromId: number;
+    toId: number;
+    relationshipId?: number;
+    points: [number, number][];
+}
+
+export interface TreeLayout {
+    rootId: number;
+    up: number;
+    down: number;
+    nodeWidth: number;
+    nodeHeight: number;
+    width: number;
+    height: number;
+    nodes: TreeLayoutNode[];
+    edges: TreeLayoutEdge[];
+}
+
+// Pushed on /changes/stream; without `changes` the entity should be fetched again
+export interface ChangeEvent {
+    entity: 'PERSON' | 'RELATIONSHIP';
+    id: number;
+    action: 'CREATE' | 'UPDATE' | 'DELETE';
+    changes?: Record<string, unknown>;
+}
+
+// GET /sync: upsert persons and relationships, drop `deleted`, repeat with nextToken while hasMore
+export interface SyncRelationship {
+    id: number;
+    person1Id: number;
+    person2Id: number;
+    relationshipType: RelationshipType;
+    startDate?: string;
+    endDate?: string;
+    updatedAt?: string;
+    version?: number;
+}
+
+export interface SyncResponse {
+    persons: Person[];
+    relationships: SyncRelationship[];
+    deleted: { entity: 'PERSON' | 'RELATIONSHIP'; id: number; deletedAt: string }[];
+    nextToken: string | null;
+    hasMore: boolean;
+    fullResync: boolean; // The token is too old: clear local data and sync again without one
+}